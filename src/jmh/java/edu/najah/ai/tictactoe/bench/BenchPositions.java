@@ -0,0 +1,77 @@
+package edu.najah.ai.tictactoe.bench;
+
+import edu.najah.ai.tictactoe.game.Board;
+import edu.najah.ai.tictactoe.game.Player;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fixed 3x3 positions shared by the benchmarks, so results stay comparable between runs.
+ */
+public final class BenchPositions {
+    
+    /**
+     * Positions for the search benchmarks, from an almost empty board to one with two empty cells.
+     */
+    public enum Stage {
+        OPENING(new int[][] {{1, 1}}),
+        MIDGAME(new int[][] {{1, 1}, {0, 0}, {2, 2}, {0, 2}}),
+        NEAR_TERMINAL(new int[][] {{1, 1}, {0, 0}, {0, 2}, {2, 0}, {1, 0}, {1, 2}, {0, 1}});
+        
+        private final int[][] moves;
+        
+        Stage(int[][] moves) {
+            this.moves = moves;
+        }
+        
+        /**
+         * Returns a new board with the stage's moves played, X first.
+         */
+        public Board board() {
+            Board board = new Board();
+            Player player = Player.X;
+            for (int[] move : moves) {
+                board.makeMove(move[0], move[1], player);
+                player = player.opponent();
+            }
+            return board;
+        }
+        
+        public Player toMove() {
+            return moves.length % 2 == 0 ? Player.X : Player.O;
+        }
+    }
+    
+    private BenchPositions() {
+    }
+    
+    /**
+     * Every position reachable in a 3x3 game (5478 including the empty board and
+     * finished games), in depth-first order.
+     */
+    public static Board[] allLegalPositions() {
+        List<Board> positions = new ArrayList<>();
+        collect(new Board(), Player.X, new HashSet<>(), positions);
+        return positions.toArray(new Board[0]);
+    }
+    
+    private static void collect(Board board, Player toMove, Set<Long> seen, List<Board> positions) {
+        if (!seen.add(board.getHash())) {
+            return;
+        }
+        positions.add(new Board(board));
+        if (board.isTerminal()) {
+            return;
+        }
+        for (int cell = 0; cell < board.getGeometry().getCellCount(); cell++) {
+            if (board.getCell(cell) == Player.EMPTY) {
+                board.makeMove(cell, toMove);
+                collect(board, toMove.opponent(), seen, positions);
+                board.undoMove(cell);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package edu.najah.ai.tictactoe.bench;
+
+import edu.najah.ai.tictactoe.game.Board;
+import edu.najah.ai.tictactoe.game.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Board primitives, each swept over every legal 3x3 position (one op = one sweep).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BoardBenchmark {
+    
+    private Board[] positions;
+    private int[] moveBuffer;
+    
+    @Setup
+    public void setUp() {
+        positions = BenchPositions.allLegalPositions();
+        moveBuffer = new int[9];
+    }
+    
+    @Benchmark
+    public void checkWinner(Blackhole blackhole) {
+        for (Board board : positions) {
+            blackhole.consume(board.checkWinner());
+        }
+    }
+    
+    @Benchmark
+    public void makeUndoMove(Blackhole blackhole) {
+        for (Board board : positions) {
+            int count = board.getAvailableMoves(moveBuffer);
+            if (count > 0) {
+                Player mover = board.getMoveCount() % 2 == 0 ? Player.X : Player.O;
+                board.makeMove(moveBuffer[0], mover);
+                blackhole.consume(board.checkWinner());
+                board.undoMove(moveBuffer[0]);
+            }
+        }
+    }
+    
+    @Benchmark
+    public void availableMovesIntoBuffer(Blackhole blackhole) {
+        for (Board board : positions) {
+            blackhole.consume(board.getAvailableMoves(moveBuffer));
+        }
+    }
+    
+    @Benchmark
+    public void availableMovesAsList(Blackhole blackhole) {
+        for (Board board : positions) {
+            blackhole.consume(board.getAvailableMoves());
+        }
+    }
+    
+    @Benchmark
+    public void canonicalHash(Blackhole blackhole) {
+        for (Board board : positions) {
+            blackhole.consume(board.getCanonicalHash());
+        }
+    }
+}
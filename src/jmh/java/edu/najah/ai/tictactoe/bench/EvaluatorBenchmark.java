@@ -0,0 +1,67 @@
+package edu.najah.ai.tictactoe.bench;
+
+import edu.najah.ai.tictactoe.ai.ClassicalEvaluator;
+import edu.najah.ai.tictactoe.ai.Evaluator;
+import edu.najah.ai.tictactoe.ai.MLEvaluator;
+import edu.najah.ai.tictactoe.game.Board;
+import edu.najah.ai.tictactoe.game.GameSettings;
+import edu.najah.ai.tictactoe.game.Player;
+import edu.najah.ai.tictactoe.ml.FeatureExtractor;
+import edu.najah.ai.tictactoe.ml.TrainedModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluators and feature extraction, swept over every legal 3x3 position (one op = one sweep).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EvaluatorBenchmark {
+    
+    @Param({"CLASSICAL", "ML"})
+    public GameSettings.EvaluationType evaluation;
+    
+    private Board[] positions;
+    private Evaluator evaluator;
+    
+    @Setup
+    public void setUp() {
+        positions = BenchPositions.allLegalPositions();
+        if (evaluation == GameSettings.EvaluationType.ML) {
+            TrainedModel.initialize();
+            evaluator = new MLEvaluator();
+        } else {
+            evaluator = new ClassicalEvaluator();
+        }
+    }
+    
+    @Benchmark
+    public void evaluate(Blackhole blackhole) {
+        for (Board board : positions) {
+            blackhole.consume(evaluator.evaluate(board, Player.X));
+        }
+    }
+    
+    @Benchmark
+    public void extractFeatures(Blackhole blackhole) {
+        for (Board board : positions) {
+            blackhole.consume(FeatureExtractor.extract(board, Player.X));
+        }
+    }
+}
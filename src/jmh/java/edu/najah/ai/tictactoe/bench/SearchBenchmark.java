@@ -0,0 +1,76 @@
+package edu.najah.ai.tictactoe.bench;
+
+import edu.najah.ai.tictactoe.ai.AlphaBeta;
+import edu.najah.ai.tictactoe.ai.ClassicalEvaluator;
+import edu.najah.ai.tictactoe.ai.Difficulty;
+import edu.najah.ai.tictactoe.ai.MLEvaluator;
+import edu.najah.ai.tictactoe.game.Board;
+import edu.najah.ai.tictactoe.game.GameSettings;
+import edu.najah.ai.tictactoe.game.Move;
+import edu.najah.ai.tictactoe.game.Player;
+import edu.najah.ai.tictactoe.ml.TrainedModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AlphaBeta#findBestMove} for every difficulty, evaluator and stage.
+ * 
+ * The warm variant reuses one engine, so its transposition table and history
+ * carry over between calls as they do during a game. The cold variant clears
+ * them before every search and measures a search from scratch.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+    
+    @Param({"EASY", "NORMAL", "HARD"})
+    public Difficulty difficulty;
+    
+    @Param({"CLASSICAL", "ML"})
+    public GameSettings.EvaluationType evaluation;
+    
+    @Param({"OPENING", "MIDGAME", "NEAR_TERMINAL"})
+    public BenchPositions.Stage stage;
+    
+    private AlphaBeta engine;
+    private Board board;
+    private Player toMove;
+    
+    @Setup
+    public void setUp() {
+        if (evaluation == GameSettings.EvaluationType.ML) {
+            TrainedModel.initialize();
+            engine = new AlphaBeta(new MLEvaluator());
+        } else {
+            engine = new AlphaBeta(new ClassicalEvaluator());
+        }
+        board = stage.board();
+        toMove = stage.toMove();
+    }
+    
+    @Benchmark
+    public Move warm() {
+        return engine.findBestMove(board, toMove, difficulty);
+    }
+    
+    @Benchmark
+    public Move cold() {
+        engine.newGame();
+        return engine.findBestMove(board, toMove, difficulty);
+    }
+}
@@ -0,0 +1,316 @@
+package edu.najah.ai.tictactoe;
+
+import edu.najah.ai.tictactoe.ai.AlphaBeta;
+import edu.najah.ai.tictactoe.ai.ClassicalEvaluator;
+import edu.najah.ai.tictactoe.ai.Difficulty;
+import edu.najah.ai.tictactoe.ai.PerfectPlayTable;
+import edu.najah.ai.tictactoe.game.Board;
+import edu.najah.ai.tictactoe.game.GameSettings;
+import edu.najah.ai.tictactoe.game.Move;
+import edu.najah.ai.tictactoe.game.Player;
+import edu.najah.ai.tictactoe.ml.ColumnarDatasetWriter;
+import edu.najah.ai.tictactoe.ml.FeatureExtractor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Builds a training dataset from self-play. Worker threads play games between
+ * {@link AlphaBeta} engines of randomly mixed difficulty, starting from random
+ * openings, and record the {@link FeatureExtractor} features of every non-terminal
+ * position. Each position is written once (positions equal up to symmetry count as
+ * the same) in the {@link edu.najah.ai.tictactoe.ml.ColumnarDataset} format, labelled
+ * +1 for an X win or -1 for an O win: the game-theoretic value from the perfect-play
+ * table on 3x3 boards, the game's final result otherwise. Drawn positions are left
+ * out, since the model and the dataset format only know the two outcomes.
+ * 
+ * {@link edu.najah.ai.tictactoe.ml.TrainedModel} has one set of weights, shared by
+ * every board size. Training it on a generated file tunes it for the board the
+ * file was generated on.
+ * 
+ * Options (all optional):
+ * <pre>
+ *   --rows=N            distinct positions to write (default 1000000)
+ *   --games=N           stop after this many games even with fewer rows (default 10 x rows)
+ *   --out=PATH          output file (default target/selfplay.ttds)
+ *   --board=VARIANT     CLASSIC, MEDIUM or GOMOKU (default MEDIUM; CLASSIC only has a few hundred distinct positions)
+ *   --depth=N           search depth cap per move, below the board's own limit (default 2)
+ *   --random-plies=N    each game opens with 0 to N random moves (default 4)
+ *   --noise=P           chance of a random move after the opening (default 0.05)
+ *   --threads=N         worker threads (default: number of cores)
+ *   --seed=N            random seed (default 42)
+ * </pre>
+ * Example: {@code java -cp target/classes edu.najah.ai.tictactoe.DatasetGenerator --rows=5000000 --out=selfplay.ttds}
+ */
+public class DatasetGenerator {
+    
+    private static final long PROGRESS_INTERVAL_MILLIS = 5000;
+    private static final int BATCH_ROWS = 1024;
+    private static final int FEATURES = FeatureExtractor.FEATURE_COUNT;
+    private static final int NOT_SOLVED = Integer.MIN_VALUE;
+    
+    private final GameSettings.BoardVariant variant;
+    private final long targetRows;
+    private final long maxGames;
+    private final int depthLimit;
+    private final int randomPlies;
+    private final double noise;
+    private final long seed;
+    
+    private final PositionSet seen;
+    private final BlockingQueue<RowBatch> queue;
+    
+    // Progress, shared by the worker threads
+    private final AtomicLong rowsAccepted = new AtomicLong();
+    private final AtomicLong gamesPlayed = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong draws = new AtomicLong();
+    
+    /**
+     * Rows handed from a worker to the writing thread. An empty batch marks the end of a worker.
+     */
+    private static final class RowBatch {
+        final int[] features = new int[BATCH_ROWS * FEATURES];
+        final byte[] labels = new byte[BATCH_ROWS];
+        int size;
+    }
+    
+    private DatasetGenerator(GameSettings.BoardVariant variant, long targetRows, long maxGames, int depthLimit,
+                             int randomPlies, double noise, long seed, int threads) {
+        this.variant = variant;
+        this.targetRows = targetRows;
+        this.maxGames = maxGames;
+        this.depthLimit = Math.min(depthLimit, variant.getDepthLimit());
+        this.randomPlies = randomPlies;
+        this.noise = noise;
+        this.seed = seed;
+        this.seen = new PositionSet(targetRows);
+        this.queue = new ArrayBlockingQueue<>(4 * threads);
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = SelfPlay.parseOptions(args);
+        long rows = Long.parseLong(options.getOrDefault("rows", "1000000"));
+        long games = Long.parseLong(options.getOrDefault("games", String.valueOf(10 * rows)));
+        Path out = Paths.get(options.getOrDefault("out", "target/selfplay.ttds"));
+        GameSettings.BoardVariant variant = GameSettings.BoardVariant.valueOf(options.getOrDefault("board", "MEDIUM").toUpperCase());
+        int depth = Integer.parseInt(options.getOrDefault("depth", "2"));
+        int randomPlies = Integer.parseInt(options.getOrDefault("random-plies", "4"));
+        double noise = Double.parseDouble(options.getOrDefault("noise", "0.05"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        
+        if (variant == GameSettings.BoardVariant.CLASSIC) {
+            PerfectPlayTable.load();
+        }
+        Path parent = out.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        
+        System.out.println("Dataset generation: " + rows + " rows (at most " + games + " games), board=" + variant
+            + ", depth<=" + Math.min(depth, variant.getDepthLimit()) + ", random plies=" + randomPlies + ", noise=" + noise + ", threads=" + threads + ", out=" + out);
+        new DatasetGenerator(variant, rows, games, depth, randomPlies, noise, seed, threads).run(out, threads);
+    }
+    
+    private void run(Path out, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        long start = System.nanoTime();
+        long[] labelCounts = new long[2]; // O wins, X wins
+        
+        try (ColumnarDatasetWriter writer = new ColumnarDatasetWriter(out, FEATURES)) {
+            for (int i = 0; i < threads; i++) {
+                long workerSeed = seed + i * 0x9E3779B97F4A7C15L;
+                workers.add(executor.submit(() -> {
+                    try {
+                        generate(new Random(workerSeed));
+                    } finally {
+                        queue.put(new RowBatch()); // end marker
+                    }
+                    return null;
+                }));
+            }
+            executor.shutdown();
+            
+            // Single writer: drain batches until every worker has finished
+            int[] features = new int[FEATURES];
+            long lastProgress = System.nanoTime();
+            int running = threads;
+            while (running > 0) {
+                RowBatch batch = queue.poll(PROGRESS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (batch != null) {
+                    if (batch.size == 0) {
+                        running--;
+                    }
+                    for (int row = 0; row < batch.size; row++) {
+                        System.arraycopy(batch.features, row * FEATURES, features, 0, FEATURES);
+                        writer.addRow(features, batch.labels[row]);
+                        labelCounts[batch.labels[row] > 0 ? 1 : 0]++;
+                    }
+                }
+                if (System.nanoTime() - lastProgress >= PROGRESS_INTERVAL_MILLIS * 1_000_000) {
+                    lastProgress = System.nanoTime();
+                    double seconds = (lastProgress - start) / 1e9;
+                    System.out.printf("  %d rows, %d games, %.0f rows/s%n", writer.rowCount(), gamesPlayed.get(),
+                        writer.rowCount() / seconds);
+                }
+            }
+            for (Future<?> worker : workers) {
+                worker.get(); // rethrows a worker's failure
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long rows = labelCounts[0] + labelCounts[1];
+        System.out.println();
+        System.out.printf("Rows:       %d in %.2f s (%.0f rows/s), %d bytes%n", rows, seconds, rows / seconds, Files.size(out));
+        System.out.printf("Games:      %d (%d repeated positions skipped)%n", Math.min(gamesPlayed.get(), maxGames),
+            duplicates.get());
+        System.out.printf("Labels:     X wins %d, O wins %d (%d drawn positions left out)%n", labelCounts[1], labelCounts[0],
+            draws.get());
+        if (rows < targetRows) {
+            System.out.println("Stopped at the game limit before reaching " + targetRows + " distinct positions");
+        }
+    }
+    
+    /**
+     * Plays games until enough rows were accepted or the game limit is reached.
+     */
+    private void generate(Random random) throws InterruptedException {
+        AlphaBeta engine = new AlphaBeta(new ClassicalEvaluator());
+        Board board = variant.createBoard();
+        int cellCount = board.getGeometry().getCellCount();
+        Difficulty[] levels = Difficulty.values();
+        
+        // Positions of the current game, labelled once it is over
+        int[] cells = new int[cellCount];
+        long[] keys = new long[cellCount];
+        int[] features = new int[cellCount * FEATURES];
+        int[] solved = new int[cellCount];
+        int[] buffer = new int[FEATURES];
+        RowBatch batch = new RowBatch();
+        
+        while (rowsAccepted.get() < targetRows && gamesPlayed.getAndIncrement() < maxGames) {
+            board.reset();
+            Difficulty xLevel = levels[random.nextInt(levels.length)];
+            Difficulty oLevel = levels[random.nextInt(levels.length)];
+            int opening = random.nextInt(randomPlies + 1);
+            Player toMove = Player.X;
+            int positions = 0;
+            
+            while (!board.isTerminal()) {
+                if (board.getMoveCount() < opening || random.nextDouble() < noise) {
+                    int count = board.getAvailableMoves(cells);
+                    board.makeMove(cells[random.nextInt(count)], toMove);
+                } else {
+                    Difficulty level = toMove == Player.X ? xLevel : oLevel;
+                    Move move = engine.findBestMove(board, toMove, level, depthLimit);
+                    board.makeMove(move.getRow(), move.getCol(), toMove);
+                }
+                toMove = toMove.opponent();
+                
+                if (!board.isTerminal()) {
+                    keys[positions] = board.getCanonicalHash();
+                    FeatureExtractor.extract(board, toMove, buffer);
+                    System.arraycopy(buffer, 0, features, positions * FEATURES, FEATURES);
+                    solved[positions] = solvedLabel(board, toMove);
+                    positions++;
+                }
+            }
+            
+            Player winner = board.checkWinner();
+            int result = winner == Player.X ? 1 : winner == Player.O ? -1 : 0;
+            for (int i = 0; i < positions; i++) {
+                int label = solved[i] != NOT_SOLVED ? solved[i] : result;
+                if (label == 0) {
+                    draws.incrementAndGet(); // not marked as seen: a later game may decide it
+                    continue;
+                }
+                if (!seen.add(keys[i])) {
+                    duplicates.incrementAndGet();
+                    continue;
+                }
+                if (rowsAccepted.getAndIncrement() >= targetRows) {
+                    break;
+                }
+                System.arraycopy(features, i * FEATURES, batch.features, batch.size * FEATURES, FEATURES);
+                batch.labels[batch.size++] = (byte) label;
+                if (batch.size == BATCH_ROWS) {
+                    queue.put(batch);
+                    batch = new RowBatch();
+                }
+            }
+        }
+        if (batch.size > 0) {
+            queue.put(batch);
+        }
+    }
+    
+    /**
+     * Value of the position for X under perfect play, or {@link #NOT_SOLVED} when
+     * the perfect-play table does not cover the board.
+     */
+    private static int solvedLabel(Board board, Player toMove) {
+        if (!PerfectPlayTable.covers(board, toMove)) {
+            return NOT_SOLVED;
+        }
+        int cell = PerfectPlayTable.bestCell(board, toMove);
+        int value = Integer.signum(PerfectPlayTable.scoreOf(board, toMove, cell));
+        return toMove == Player.X ? value : -value;
+    }
+    
+    /**
+     * Fixed-size, lock-free set of position hashes (open addressing, linear probing).
+     * Sized for twice the expected number of entries, so memory is bounded by the
+     * row target rather than by the number of games played.
+     */
+    static final class PositionSet {
+        private final AtomicLongArray slots;
+        private final int mask;
+        
+        PositionSet(long expected) {
+            long capacity = Long.highestOneBit(Math.max(16, 2 * expected - 1)) << 1;
+            capacity = Math.min(capacity, 1L << 30);
+            this.slots = new AtomicLongArray((int) capacity);
+            this.mask = (int) capacity - 1;
+        }
+        
+        /**
+         * Adds {@code key}; false if it was already present (or the set is full).
+         */
+        boolean add(long key) {
+            if (key == 0) {
+                key = 1; // 0 marks an empty slot
+            }
+            int slot = (int) (key ^ (key >>> 32)) & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                long current = slots.get(slot);
+                if (current == 0) {
+                    if (slots.compareAndSet(slot, 0, key)) {
+                        return true;
+                    }
+                    current = slots.get(slot); // another thread took the slot
+                }
+                if (current == key) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+    }
+}
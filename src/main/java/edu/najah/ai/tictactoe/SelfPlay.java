@@ -0,0 +1,270 @@
+package edu.najah.ai.tictactoe;
+
+import edu.najah.ai.tictactoe.ai.AlphaBeta;
+import edu.najah.ai.tictactoe.ai.CachingEvaluator;
+import edu.najah.ai.tictactoe.ai.ClassicalEvaluator;
+import edu.najah.ai.tictactoe.ai.Difficulty;
+import edu.najah.ai.tictactoe.ai.MLEvaluator;
+import edu.najah.ai.tictactoe.ai.PerfectPlayTable;
+import edu.najah.ai.tictactoe.ai.SearchMode;
+import edu.najah.ai.tictactoe.game.Board;
+import edu.najah.ai.tictactoe.game.GameSettings;
+import edu.najah.ai.tictactoe.game.Move;
+import edu.najah.ai.tictactoe.game.Player;
+import edu.najah.ai.tictactoe.ml.TrainedModel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless AI-vs-AI simulator. Plays many games on all cores without loading
+ * JavaFX and reports throughput, results and per-move latency.
+ * 
+ * Options (all optional):
+ * <pre>
+ *   --games=N           number of games (default 100000)
+ *   --x=LEVEL:EVAL      difficulty and evaluator of X, e.g. HARD:CLASSICAL (default)
+ *   --o=LEVEL:EVAL      difficulty and evaluator of O, e.g. NORMAL:ML (default HARD:CLASSICAL)
+ *   --board=VARIANT     CLASSIC, MEDIUM or GOMOKU (default CLASSIC)
+ *   --mode=MODE         ALPHA_BETA, ITERATIVE_DEEPENING or SOLVED_TABLE (default ALPHA_BETA)
+ *   --threads=N         worker threads (default: number of cores)
+ *   --batch=true        score sibling leaves in batches (see AlphaBeta#setBatchLeaves)
+ * </pre>
+ * Example: {@code java -cp target/classes edu.najah.ai.tictactoe.SelfPlay --games=1000000 --o=NORMAL:ML}
+ */
+public class SelfPlay {
+    
+    private static final long PROGRESS_INTERVAL_MILLIS = 5000;
+    
+    private final Side x;
+    private final Side o;
+    private final GameSettings.BoardVariant variant;
+    
+    // Results, shared by the worker threads
+    private final AtomicLong gamesPlayed = new AtomicLong();
+    private final AtomicLong xWins = new AtomicLong();
+    private final AtomicLong oWins = new AtomicLong();
+    private final AtomicLong draws = new AtomicLong();
+    
+    /**
+     * One player: its difficulty and an engine shared by every worker thread.
+     */
+    private static class Side {
+        final Difficulty difficulty;
+        final GameSettings.EvaluationType evaluation;
+        final AlphaBeta engine;
+        
+        Side(String spec, SearchMode mode, boolean batchLeaves) {
+            String[] parts = spec.toUpperCase().split(":");
+            difficulty = Difficulty.valueOf(parts[0]);
+            evaluation = parts.length > 1 ? GameSettings.EvaluationType.valueOf(parts[1]) : GameSettings.EvaluationType.CLASSICAL;
+            engine = new AlphaBeta(evaluation == GameSettings.EvaluationType.ML ? new CachingEvaluator(new MLEvaluator()) : new ClassicalEvaluator());
+            engine.setSearchMode(mode);
+            engine.setBatchLeaves(batchLeaves);
+        }
+        
+        @Override
+        public String toString() {
+            return difficulty + "/" + evaluation;
+        }
+    }
+    
+    private SelfPlay(Side x, Side o, GameSettings.BoardVariant variant) {
+        this.x = x;
+        this.o = o;
+        this.variant = variant;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        long games = Long.parseLong(options.getOrDefault("games", "100000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        SearchMode mode = SearchMode.valueOf(options.getOrDefault("mode", "ALPHA_BETA").toUpperCase());
+        GameSettings.BoardVariant variant = GameSettings.BoardVariant.valueOf(options.getOrDefault("board", "CLASSIC").toUpperCase());
+        boolean batchLeaves = Boolean.parseBoolean(options.getOrDefault("batch", "false"));
+        Side x = new Side(options.getOrDefault("x", "HARD:CLASSICAL"), mode, batchLeaves);
+        Side o = new Side(options.getOrDefault("o", "HARD:CLASSICAL"), mode, batchLeaves);
+        
+        if (x.evaluation == GameSettings.EvaluationType.ML || o.evaluation == GameSettings.EvaluationType.ML) {
+            TrainedModel.initialize();
+        }
+        if (mode == SearchMode.SOLVED_TABLE) {
+            PerfectPlayTable.load();
+        }
+        
+        System.out.println("Self-play: " + games + " games, X=" + x + ", O=" + o + ", board=" + variant
+            + ", mode=" + mode + ", threads=" + threads);
+        new SelfPlay(x, o, variant).run(games, threads);
+    }
+    
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --option=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+    
+    private void run(long games, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicLong nextGame = new AtomicLong();
+        List<Future<LatencyHistogram>> workers = new ArrayList<>();
+        long start = System.nanoTime();
+        
+        for (int i = 0; i < threads; i++) {
+            workers.add(executor.submit(() -> {
+                LatencyHistogram latency = new LatencyHistogram();
+                Board board = variant.createBoard();
+                while (nextGame.getAndIncrement() < games) {
+                    playGame(board, latency);
+                }
+                return latency;
+            }));
+        }
+        executor.shutdown();
+        
+        while (!executor.awaitTermination(PROGRESS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("  %d games, %.0f games/s%n", gamesPlayed.get(), gamesPlayed.get() / seconds);
+        }
+        
+        LatencyHistogram latency = new LatencyHistogram();
+        for (Future<LatencyHistogram> worker : workers) {
+            latency.add(worker.get());
+        }
+        report((System.nanoTime() - start) / 1e9, latency);
+    }
+    
+    private void playGame(Board board, LatencyHistogram latency) {
+        board.reset();
+        Player toMove = Player.X;
+        while (!board.isTerminal()) {
+            Side side = toMove == Player.X ? x : o;
+            long moveStart = System.nanoTime();
+            Move move = side.engine.findBestMove(board, toMove, side.difficulty, variant.getDepthLimit());
+            latency.record(System.nanoTime() - moveStart);
+            board.makeMove(move.getRow(), move.getCol(), toMove);
+            toMove = toMove.opponent();
+        }
+        
+        Player winner = board.checkWinner();
+        if (winner == Player.X) {
+            xWins.incrementAndGet();
+        } else if (winner == Player.O) {
+            oWins.incrementAndGet();
+        } else {
+            draws.incrementAndGet();
+        }
+        gamesPlayed.incrementAndGet();
+    }
+    
+    private void report(double seconds, LatencyHistogram latency) {
+        long games = gamesPlayed.get();
+        System.out.println();
+        System.out.printf("Games:        %d in %.2f s (%.0f games/s)%n", games, seconds, games / seconds);
+        System.out.printf("X (%s) wins: %6.2f%%%n", x, 100.0 * xWins.get() / games);
+        System.out.printf("Draws:        %6.2f%%%n", 100.0 * draws.get() / games);
+        System.out.printf("O (%s) wins: %6.2f%%%n", o, 100.0 * oWins.get() / games);
+        System.out.printf("Moves:        %d (%.0f moves/s)%n", latency.count(), latency.count() / seconds);
+        System.out.printf("Move latency: p50 %s, p90 %s, p99 %s, p99.9 %s, max %s%n",
+            format(latency.percentile(50)),
+            format(latency.percentile(90)),
+            format(latency.percentile(99)),
+            format(latency.percentile(99.9)),
+            format(latency.max()));
+        for (Side side : new Side[] {x, o}) {
+            if (side.engine.getEvaluator() instanceof CachingEvaluator) {
+                CachingEvaluator cache = (CachingEvaluator) side.engine.getEvaluator();
+                System.out.printf("Eval cache (%s): %.1f%% hits of %d lookups%n",
+                    side, cache.getHitRate() * 100, cache.getHits() + cache.getMisses());
+            }
+        }
+    }
+    
+    private static String format(long nanos) {
+        if (nanos < 10_000) {
+            return nanos + " ns";
+        } else if (nanos < 10_000_000) {
+            return (nanos / 1_000) + " us";
+        }
+        return (nanos / 1_000_000) + " ms";
+    }
+    
+    /**
+     * Log-bucketed latency histogram: 16 sub-buckets per power of two, so any
+     * recorded value is reported within about 6%. One per worker thread, merged at the end.
+     */
+    static class LatencyHistogram {
+        private static final int SUB_BUCKETS = 16;
+        
+        private final long[] counts = new long[64 * SUB_BUCKETS];
+        private long count;
+        private long max;
+        
+        void record(long nanos) {
+            counts[bucketOf(Math.max(1, nanos))]++;
+            count++;
+            max = Math.max(max, nanos);
+        }
+        
+        void add(LatencyHistogram other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            count += other.count;
+            max = Math.max(max, other.max);
+        }
+        
+        long count() {
+            return count;
+        }
+        
+        long max() {
+            return max;
+        }
+        
+        /**
+         * Upper bound of the bucket holding the given percentile.
+         */
+        long percentile(double percent) {
+            long target = (long) Math.ceil(count * percent / 100.0);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target && counts[i] > 0) {
+                    return Math.min(upperBoundOf(i), max);
+                }
+            }
+            return max;
+        }
+        
+        private static int bucketOf(long value) {
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            if (exponent < 4) {
+                return (int) value; // small values get one bucket each
+            }
+            int sub = (int) ((value >>> (exponent - 4)) & (SUB_BUCKETS - 1));
+            return exponent * SUB_BUCKETS + sub;
+        }
+        
+        private static long upperBoundOf(int bucket) {
+            int exponent = bucket / SUB_BUCKETS;
+            if (exponent < 4) {
+                return bucket;
+            }
+            int sub = bucket % SUB_BUCKETS;
+            return ((long) (SUB_BUCKETS + sub + 1) << (exponent - 4)) - 1;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package edu.najah.ai.tictactoe;
 
+import edu.najah.ai.tictactoe.ai.PerfectPlayTable;
 import edu.najah.ai.tictactoe.ml.TrainedModel;
+import edu.najah.ai.tictactoe.ml.TrainingJob;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -9,12 +11,18 @@ import javafx.stage.Stage;
 
 public class TicTacToeApp extends Application {
     
+    private TrainingJob training;
+    
     @Override
     public void start(Stage primaryStage) throws Exception {
-        // Initialize and train the ML model at startup
-        System.out.println("=== Initializing ML Model ===");
-        TrainedModel.initialize();
-        System.out.println("=== ML Model Ready ===\n");
+        // Load or train the ML model in the background; the ML evaluator plays
+        // with the classical heuristics until the weights are published
+        System.out.println("=== Initializing ML Model (background) ===");
+        training = TrainedModel.initializeAsync();
+        training.completion().thenRun(() -> System.out.println("=== ML Model Ready ===\n"));
+        
+        // Load the solved 3x3 table used by the perfect-play search mode
+        PerfectPlayTable.load();
         
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/menu.fxml"));
         Parent root = loader.load();
@@ -26,6 +34,11 @@ public class TicTacToeApp extends Application {
         primaryStage.show();
     }
     
+    @Override
+    public void stop() {
+        training.cancel();
+    }
+    
     public static void main(String[] args) {
         launch(args);
     }
@@ -1,27 +1,62 @@
 package edu.najah.ai.tictactoe.ai;
 
 import edu.najah.ai.tictactoe.game.Board;
+import edu.najah.ai.tictactoe.game.BoardSymmetry;
 import edu.najah.ai.tictactoe.game.Move;
 import edu.najah.ai.tictactoe.game.Player;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Alpha-Beta pruning implementation for Tic-Tac-Toe AI.
+ * 
+ * The engine is re-entrant: everything a search changes lives in per-call
+ * objects, and the result comes back as an immutable {@link SearchResult}.
+ * Only the transposition table and the history scores are shared between
+ * calls, so one warmed-up engine can serve many games at once.
  */
 public class AlphaBeta {
     
-    private Evaluator evaluator;
-    private int nodesEvaluated;
-    private int pruneCount;
-    private List<Move> lastMoveScores; // For debug mode
+    private static final long MINIMIZER_TO_MOVE_KEY = 0x9E3779B97F4A7C15L;
+    private static final long MAXIMIZING_O_KEY = 0xC2B2AE3D27D4EB4FL;
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    
+    private volatile Evaluator evaluator;
+    private volatile SearchMode searchMode;
+    private final TranspositionTable table;
+    private final Map<Integer, MoveOrderer> orderers; // shared history per board size (cell count)
+    
+    // Budget for iterative deepening (0 = unlimited)
+    private volatile long timeBudgetMillis;
+    private volatile long nodeBudget;
+    
+    // Parallel search
+    private volatile int threadCount;
+    private volatile ParallelMode parallelMode;
+    private ForkJoinPool pool;
+    
+    private volatile boolean batchLeaves;
+    private volatile boolean moveOrdering = true;
+    
+    private volatile long tableVersion; // evaluator version the stored scores came from
     
     public AlphaBeta(Evaluator evaluator) {
         this.evaluator = evaluator;
-        this.nodesEvaluated = 0;
-        this.pruneCount = 0;
-        this.lastMoveScores = new ArrayList<>();
+        this.table = new TranspositionTable();
+        this.orderers = new ConcurrentHashMap<>();
+        this.searchMode = SearchMode.ALPHA_BETA;
+        this.threadCount = 1;
+        this.parallelMode = ParallelMode.ROOT_SPLIT;
     }
     
     /**
@@ -33,10 +68,80 @@ public class AlphaBeta {
      * @return the best move
      */
     public Move findBestMove(Board board, Player player, Difficulty difficulty) {
-        nodesEvaluated = 0;
-        pruneCount = 0;
-        lastMoveScores.clear();
+        return search(board, player, difficulty).getBestMove();
+    }
+    
+    /**
+     * Finds the best move, searching at most {@code depthLimit} plies.
+     * Used on larger boards where the difficulty's depth would be too expensive.
+     * 
+     * @param board current board state
+     * @param player the AI player
+     * @param difficulty difficulty level
+     * @param depthLimit upper bound on the search depth
+     * @return the best move
+     */
+    public Move findBestMove(Board board, Player player, Difficulty difficulty, int depthLimit) {
+        return search(board, player, difficulty, depthLimit).getBestMove();
+    }
+    
+    /**
+     * Searches the position and returns the best move together with the scores
+     * and statistics of this search. Safe to call from several threads at once,
+     * as long as each call passes its own board.
+     * 
+     * @param board current board state; restored before the call returns
+     * @param player the AI player
+     * @param difficulty difficulty level
+     * @return the result of this search
+     */
+    public SearchResult search(Board board, Player player, Difficulty difficulty) {
+        return search(board, player, difficulty, difficulty.getDepth());
+    }
+    
+    /**
+     * Like {@link #search(Board, Player, Difficulty)}, searching at most {@code depthLimit} plies.
+     */
+    public SearchResult search(Board board, Player player, Difficulty difficulty, int depthLimit) {
+        return search(board, player, difficulty, depthLimit, null);
+    }
+    
+    /**
+     * Like {@link #search(Board, Player, Difficulty, int)}, stopping early if
+     * {@code handle} is cancelled from another thread.
+     * 
+     * @param handle cancellation handle for this search, or null
+     */
+    public SearchResult search(Board board, Player player, Difficulty difficulty, int depthLimit, SearchHandle handle) {
+        long start = System.nanoTime();
+        int maxDepth = Math.min(difficulty.getDepth(), depthLimit);
+        SearchMode mode = searchMode;
+        SearchControl control = mode == SearchMode.ITERATIVE_DEEPENING
+            ? new SearchControl(evaluator, timeBudgetMillis, nodeBudget, threadCount, parallelMode, batchLeaves, moveOrdering)
+            : new SearchControl(evaluator, 0, 0, threadCount, parallelMode, batchLeaves, moveOrdering);
+        MoveOrderer orderer = orderers.computeIfAbsent(board.getGeometry().getCellCount(), MoveOrderer::new);
+        orderer.ageHistory();
+        SearchContext context = new SearchContext(control, orderer.forThread(board.getMoveCount()), control.threadCount > 1,
+            board.getGeometry().getCellCount(), maxDepth);
+        if (handle != null) {
+            handle.attach(control);
+        }
+        long version = evaluator.getVersion();
+        if (version != tableVersion) {
+            // The evaluator's scores changed (e.g. new model weights)
+            table.clear();
+            tableVersion = version;
+        }
+        table.newSearch();
+        
+        List<Move> moveScores = new ArrayList<>();
+        Move bestMove = search(context, board, player, difficulty, mode, maxDepth, moveScores);
+        context.orderer.keepKillers();
         
+        return new SearchResult(bestMove, moveScores, context, (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    private Move search(SearchContext context, Board board, Player player, Difficulty difficulty, SearchMode mode, int maxDepth, List<Move> moveScores) {
         List<Move> availableMoves = board.getAvailableMoves();
         
         if (availableMoves.isEmpty()) {
@@ -47,53 +152,364 @@ public class AlphaBeta {
         if (difficulty == Difficulty.EASY) {
             // 60% chance to make a random move
             if (Math.random() < 0.60) {
-                Move randomMove = availableMoves.get((int)(Math.random() * availableMoves.size()));
-                randomMove.setScore(0);
-                return randomMove;
+                return availableMoves.get((int)(Math.random() * availableMoves.size()));
             }
         } else if (difficulty == Difficulty.NORMAL) {
             // 30% chance to make a random move
             if (Math.random() < 0.30) {
-                Move randomMove = availableMoves.get((int)(Math.random() * availableMoves.size()));
-                randomMove.setScore(0);
-                return randomMove;
+                return availableMoves.get((int)(Math.random() * availableMoves.size()));
             }
         }
         
+        // Solved positions need no search
+        if (mode == SearchMode.SOLVED_TABLE && PerfectPlayTable.covers(board, player)) {
+            return lookUpBestMove(board, player, availableMoves, moveScores);
+        }
+        
+        // Moves that are rotations/reflections of an earlier move lead to the same position
+        BoardSymmetry symmetry = board.getSymmetry();
+        int[] stabilizer = symmetry.stabilizer(board);
+        int[] cells = new int[board.getGeometry().getCellCount()];
+        int count = board.getAvailableMoves(cells);
+        int rootCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (symmetry.representative(stabilizer, cells[i]) == cells[i]) {
+                cells[rootCount++] = cells[i];
+            }
+        }
+        int[] rootMoves = Arrays.copyOf(cells, rootCount);
+        
+        int[] rootScores = new int[board.getGeometry().getCellCount()];
+        int bestCell;
+        if (mode == SearchMode.ITERATIVE_DEEPENING) {
+            bestCell = iterativeDeepening(context, board, player, rootMoves, maxDepth, rootScores);
+        } else {
+            int best = searchRoot(context, board, player, rootMoves, maxDepth, rootScores);
+            if (best < 0) {
+                return null; // Cancelled
+            }
+            bestCell = rootMoves[best];
+            context.control.completedDepth = maxDepth;
+        }
+        
+        // Equivalent moves share the score of their representative
         Move bestMove = null;
+        for (Move move : availableMoves) {
+            int cell = board.getGeometry().cellIndex(move.getRow(), move.getCol());
+            Move scored = move.withScore(rootScores[symmetry.representative(stabilizer, cell)]);
+            moveScores.add(scored);
+            if (cell == bestCell) {
+                bestMove = scored;
+            }
+        }
+        
+        return bestMove;
+    }
+    
+    /**
+     * Searches one ply deeper per iteration until {@code maxDepth} is reached, the
+     * whole tree has been searched, or the time/node budget runs out. The best move
+     * of the last completed iteration is returned, and each iteration searches the
+     * previous iteration's best moves first.
+     */
+    private int iterativeDeepening(SearchContext context, Board board, Player player, int[] rootMoves, int maxDepth, int[] rootScores) {
+        int emptyCells = board.getGeometry().getCellCount() - board.getMoveCount();
+        int[] iterationScores = new int[rootScores.length];
+        int bestCell = TranspositionTable.NO_MOVE;
+        
+        for (int depth = 0; depth <= maxDepth; depth++) {
+            int best = searchRoot(context, board, player, rootMoves, depth, iterationScores);
+            if (best < 0) {
+                break; // Budget ran out part-way through this iteration
+            }
+            
+            bestCell = rootMoves[best];
+            context.control.completedDepth = depth;
+            System.arraycopy(iterationScores, 0, rootScores, 0, rootScores.length);
+            
+            // Order the next iteration by this iteration's scores, best line first
+            sortByScore(rootMoves, rootScores);
+            
+            // Later iterations may stop early once a move is available
+            context.control.activate();
+            if (depth + 1 >= emptyCells || context.control.isOutOfBudget()) {
+                break;
+            }
+        }
+        
+        return bestCell;
+    }
+    
+    /**
+     * Stable insertion sort of cells by descending score.
+     */
+    private static void sortByScore(int[] cells, int[] scores) {
+        for (int i = 1; i < cells.length; i++) {
+            int cell = cells[i];
+            int j = i;
+            while (j > 0 && scores[cells[j - 1]] < scores[cell]) {
+                cells[j] = cells[j - 1];
+                j--;
+            }
+            cells[j] = cell;
+        }
+    }
+    
+    /**
+     * Searches the given root moves to {@code maxDepth}, writing each move's score
+     * into {@code scores} (indexed by cell).
+     * 
+     * @return index of the best move in {@code rootMoves}, or -1 if the search was aborted
+     */
+    private int searchRoot(SearchContext context, Board board, Player player, int[] rootMoves, int maxDepth, int[] scores) {
+        SearchControl control = context.control;
+        if (control.threadCount > 1 && control.parallelMode == ParallelMode.LAZY_SMP) {
+            return searchRootLazySmp(context, board, player, rootMoves, maxDepth, scores);
+        }
+        if (control.threadCount > 1 && rootMoves.length > 1) {
+            return searchRootParallel(context, board, player, rootMoves, maxDepth, scores);
+        }
+        
+        int before = context.nodes;
+        int best = searchRootSerial(context, board, player, rootMoves, maxDepth, scores);
+        control.recordThreadNodes(0, context.nodes - before);
+        return best;
+    }
+    
+    private int searchRootSerial(SearchContext context, Board board, Player player, int[] rootMoves, int maxDepth, int[] scores) {
+        int best = -1;
         int bestScore = Integer.MIN_VALUE;
         int alpha = Integer.MIN_VALUE;
         int beta = Integer.MAX_VALUE;
         
-        // Evaluate all possible moves
-        for (Move move : availableMoves) {
-            board.makeMove(move.getRow(), move.getCol(), player);
+        for (int i = 0; i < rootMoves.length; i++) {
+            int cell = rootMoves[i];
+            board.makeMove(cell, player);
             
-            int score = alphabeta(board, player, alpha, beta, 0, difficulty.getDepth(), false);
+            int score = alphabeta(context, board, player, alpha, beta, 0, maxDepth, false);
             
-            board.undoMove(move.getRow(), move.getCol());
+            board.undoMove(cell);
             
-            move.setScore(score);
-            lastMoveScores.add(new Move(move.getRow(), move.getCol(), score));
+            if (context.isAborted()) {
+                return -1;
+            }
+            
+            scores[cell] = score;
             
             if (score > bestScore) {
                 bestScore = score;
-                bestMove = move;
+                best = i;
             }
             
             alpha = Math.max(alpha, bestScore);
         }
         
-        if (bestMove != null) {
-            bestMove.setScore(bestScore);
+        return best;
+    }
+    
+    /**
+     * Searches the root moves concurrently on the fork/join pool. The best
+     * (score, index) pair found so far is shared through an atomic long and used
+     * as the alpha bound of every move that starts later.
+     * 
+     * A move that comes before the current best in {@code rootMoves} is searched
+     * with alpha one below the best score, so it can still win a tie; a later move
+     * has to beat the best score. Any score above its alpha bound is exact, so the
+     * chosen move (highest score, lowest index on ties) is the same as in the
+     * sequential search, whatever order the threads finish in.
+     */
+    private int searchRootParallel(SearchContext context, Board board, Player player, int[] rootMoves, int maxDepth, int[] scores) {
+        AtomicLong best = new AtomicLong(packBest(Integer.MIN_VALUE, Integer.MAX_VALUE));
+        SearchContext[] contexts = new SearchContext[rootMoves.length];
+        long[] busyNanos = new long[rootMoves.length];
+        long start = System.nanoTime();
+        
+        List<RecursiveAction> tasks = new ArrayList<>();
+        for (int i = 0; i < rootMoves.length; i++) {
+            final int index = i;
+            tasks.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    long taskStart = cpuTimeNanos();
+                    SearchContext local = new SearchContext(context.control, context.orderer.forThread(), true, scores.length, maxDepth);
+                    contexts[index] = local;
+                    searchRootMove(local, new Board(board), player, rootMoves[index], index, maxDepth, best, scores);
+                    busyNanos[index] = cpuTimeNanos() - taskStart;
+                    context.control.recordThreadNodes(poolIndex(), local.nodes);
+                }
+            });
+        }
+        pool(context.control.threadCount).invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+        
+        long busy = 0;
+        for (int i = 0; i < contexts.length; i++) {
+            context.add(contexts[i]);
+            busy += busyNanos[i];
+        }
+        context.control.coresBusy = (double) busy / Math.max(1, System.nanoTime() - start);
+        
+        if (context.isAborted()) {
+            return -1;
+        }
+        return bestIndex(best.get());
+    }
+    
+    /**
+     * Lazy SMP: the calling thread runs the normal serial search while helper
+     * threads search the same root moves, each starting from a different move.
+     * They share the transposition table and history, so the main thread finds
+     * many positions already searched. Helpers are stopped as soon as the main
+     * thread finishes, and only the main thread's result is used.
+     */
+    private int searchRootLazySmp(SearchContext context, Board board, Player player, int[] rootMoves, int maxDepth, int[] scores) {
+        SearchControl helperControl = context.control.helper();
+        SearchContext[] helpers = new SearchContext[context.control.threadCount - 1];
+        ForkJoinPool pool = pool(context.control.threadCount);
+        long[] busyNanos = new long[helpers.length + 1];
+        long start = System.nanoTime();
+        
+        List<RecursiveAction> tasks = new ArrayList<>();
+        for (int h = 0; h < helpers.length; h++) {
+            final int helper = h;
+            // Copied here, before the main search starts moving on the board
+            Board helperBoard = new Board(board);
+            RecursiveAction task = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    long taskStart = cpuTimeNanos();
+                    SearchContext local = new SearchContext(helperControl, context.orderer.forThread(), true, scores.length, maxDepth);
+                    helpers[helper] = local;
+                    int[] order = new int[rootMoves.length];
+                    for (int i = 0; i < order.length; i++) {
+                        order[i] = rootMoves[(i + helper + 1) % order.length];
+                    }
+                    searchRootSerial(local, helperBoard, player, order, maxDepth, new int[scores.length]);
+                    busyNanos[helper + 1] = cpuTimeNanos() - taskStart;
+                }
+            };
+            tasks.add(task);
+            pool.execute(task);
         }
         
+        long mainStart = cpuTimeNanos();
+        int before = context.nodes;
+        int best = searchRootSerial(context, board, player, rootMoves, maxDepth, scores);
+        context.control.recordThreadNodes(0, context.nodes - before);
+        busyNanos[0] = cpuTimeNanos() - mainStart;
+        
+        helperControl.abort();
+        long busy = busyNanos[0];
+        for (int h = 0; h < tasks.size(); h++) {
+            tasks.get(h).join();
+            context.add(helpers[h]);
+            context.control.recordThreadNodes(h + 1, helpers[h].nodes);
+            busy += busyNanos[h + 1];
+        }
+        context.control.coresBusy = (double) busy / Math.max(1, System.nanoTime() - start);
+        
+        return best;
+    }
+    
+    /**
+     * Index of the pool thread running the current task, so pool thread i reports as thread i.
+     */
+    private static int poolIndex() {
+        Thread thread = Thread.currentThread();
+        return thread instanceof ForkJoinWorkerThread ? ((ForkJoinWorkerThread) thread).getPoolIndex() : 0;
+    }
+    
+    private void searchRootMove(SearchContext context, Board board, Player player, int cell, int index, int maxDepth, AtomicLong best, int[] scores) {
+        long current = best.get();
+        int bestScore = bestScore(current);
+        int alpha = bestScore;
+        if (bestScore != Integer.MIN_VALUE && index < bestIndex(current)) {
+            alpha = bestScore - 1;
+        }
+        
+        board.makeMove(cell, player);
+        int score = alphabeta(context, board, player, alpha, Integer.MAX_VALUE, 0, maxDepth, false);
+        
+        if (context.isAborted()) {
+            return;
+        }
+        scores[cell] = score;
+        
+        // Publish the score if it beats the current best (ties go to the lower index)
+        if (score > alpha || alpha == Integer.MIN_VALUE) {
+            long candidate = packBest(score, index);
+            while (true) {
+                current = best.get();
+                int currentScore = bestScore(current);
+                if (score < currentScore || (score == currentScore && index > bestIndex(current))) {
+                    break;
+                }
+                if (best.compareAndSet(current, candidate)) {
+                    break;
+                }
+            }
+        }
+    }
+    
+    /**
+     * CPU time of the current thread, or wall-clock time where the JVM does not measure it.
+     */
+    private static long cpuTimeNanos() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+    
+    private static long packBest(int score, int index) {
+        return ((long) score << 32) | (index & 0xFFFFFFFFL);
+    }
+    
+    private static int bestScore(long packed) {
+        return (int) (packed >> 32);
+    }
+    
+    private static int bestIndex(long packed) {
+        return (int) packed;
+    }
+    
+    /**
+     * Pool with exactly {@code parallelism} threads, so the root is split over the
+     * configured number of threads. A pool of another size is replaced and shut
+     * down; tasks it is already running still finish.
+     */
+    private synchronized ForkJoinPool pool(int parallelism) {
+        if (pool == null || pool.getParallelism() != parallelism) {
+            if (pool != null) {
+                pool.shutdown();
+            }
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+    
+    /**
+     * Answers from the perfect-play table instead of searching.
+     */
+    private Move lookUpBestMove(Board board, Player player, List<Move> availableMoves, List<Move> moveScores) {
+        int bestCell = PerfectPlayTable.bestCell(board, player);
+        Move bestMove = null;
+        for (Move move : availableMoves) {
+            int cell = board.getGeometry().cellIndex(move.getRow(), move.getCol());
+            Move scored = move.withScore(PerfectPlayTable.scoreOf(board, player, cell));
+            moveScores.add(scored);
+            if (cell == bestCell) {
+                bestMove = scored;
+            }
+        }
         return bestMove;
     }
     
     /**
      * Alpha-Beta pruning algorithm.
      * 
+     * @param context counters and budget of the calling thread
      * @param board current board state
      * @param maximizingPlayer the AI player (used for evaluation)
      * @param alpha alpha value for pruning
@@ -103,73 +519,280 @@ public class AlphaBeta {
      * @param maximizingPlayerTurn true if it's the maximizing player's turn
      * @return the heuristic value of the node
      */
-    private int alphabeta(Board board, Player maximizingPlayer, int alpha, int beta, int depth, int maxDepth, boolean maximizingPlayerTurn) {
-        nodesEvaluated++;
+    private int alphabeta(SearchContext context, Board board, Player maximizingPlayer, int alpha, int beta, int depth, int maxDepth, boolean maximizingPlayerTurn) {
+        // Out of time or nodes: unwind, the caller discards this iteration
+        if (context.visitNode()) {
+            return 0;
+        }
         
         // Terminal test or depth limit
         if (depth >= maxDepth || board.isTerminal()) {
-            return evaluator.evaluate(board, maximizingPlayer);
+            return context.control.evaluator.evaluate(board, maximizingPlayer);
+        }
+        
+        // Transposition table lookup, keyed on the canonical form of the position
+        int remaining = maxDepth - depth;
+        BoardSymmetry symmetry = board.getSymmetry();
+        int transform = symmetry.canonicalTransform(board);
+        long key = positionKey(board.getSymmetricHash(transform), maximizingPlayer, maximizingPlayerTurn);
+        long entry = table.probe(key);
+        int storedDepth = TranspositionTable.depthOf(entry);
+        if (entry != 0 && (context.exactDepthOnly ? storedDepth == remaining : storedDepth >= remaining)) {
+            context.tableHits++;
+            int stored = TranspositionTable.scoreOf(entry);
+            int flag = TranspositionTable.flagOf(entry);
+            if (flag == TranspositionTable.EXACT) {
+                return stored;
+            } else if (flag == TranspositionTable.LOWER_BOUND) {
+                alpha = Math.max(alpha, stored);
+            } else {
+                beta = Math.min(beta, stored);
+            }
+            if (beta <= alpha) {
+                return stored;
+            }
+        } else {
+            context.tableMisses++;
         }
         
-        List<Move> moves = board.getAvailableMoves();
+        int originalAlpha = alpha;
+        int originalBeta = beta;
+        int bestCell = TranspositionTable.NO_MOVE;
+        int[] moves = context.moves[depth];
+        int count = board.getAvailableMoves(moves);
+        Player mover = maximizingPlayerTurn ? maximizingPlayer : maximizingPlayer.opponent();
+        
+        // Hash move (the previous iteration's best line) first, then wins, blocks, killers and history
+        int hashCell = TranspositionTable.NO_MOVE;
+        if (entry != 0 && TranspositionTable.moveOf(entry) != TranspositionTable.NO_MOVE) {
+            hashCell = symmetry.invert(transform, TranspositionTable.moveOf(entry));
+        }
+        if (context.control.moveOrdering) {
+            context.orderer.order(board, moves, count, mover, depth, hashCell);
+        }
+        
+        // One ply above the limit every child is a leaf. The first child is scored
+        // alone since it causes most cut-offs; if it does not, the remaining siblings
+        // are scored in one batch (see scoreLeaves)
+        boolean batchSiblings = remaining == 1 && count > 1 && context.control.batchEvaluator != null;
+        int v;
         
         if (maximizingPlayerTurn) {
             // Maximizing player
-            int v = Integer.MIN_VALUE;
+            v = Integer.MIN_VALUE;
             
-            for (Move move : moves) {
-                board.makeMove(move.getRow(), move.getCol(), maximizingPlayer);
-                
-                v = Math.max(v, alphabeta(board, maximizingPlayer, alpha, beta, depth + 1, maxDepth, false));
+            for (int i = 0; i < count; i++) {
+                int cell = moves[i];
+                int score;
+                if (batchSiblings && i > 0) {
+                    if (i == 1 && scoreLeaves(context, board, moves, count, mover, maximizingPlayer)) {
+                        return 0;
+                    }
+                    score = context.leafScores[i];
+                } else {
+                    board.makeMove(cell, maximizingPlayer);
+                    
+                    score = alphabeta(context, board, maximizingPlayer, alpha, beta, depth + 1, maxDepth, false);
+                    
+                    board.undoMove(cell);
+                    
+                    if (context.isAborted()) {
+                        return 0;
+                    }
+                }
                 
-                board.undoMove(move.getRow(), move.getCol());
+                if (score > v) {
+                    v = score;
+                    bestCell = cell;
+                }
                 
                 alpha = Math.max(alpha, v);
                 
                 if (beta <= alpha) {
-                    pruneCount++;
+                    context.prunes++;
+                    if (context.control.moveOrdering) {
+                        context.orderer.recordCutoff(mover, bestCell, depth, remaining);
+                    }
                     break; // Beta cut-off
                 }
             }
-            
-            return v;
         } else {
             // Minimizing player
-            int v = Integer.MAX_VALUE;
-            Player minimizingPlayer = maximizingPlayer.opponent();
+            v = Integer.MAX_VALUE;
             
-            for (Move move : moves) {
-                board.makeMove(move.getRow(), move.getCol(), minimizingPlayer);
-                
-                v = Math.min(v, alphabeta(board, maximizingPlayer, alpha, beta, depth + 1, maxDepth, true));
+            for (int i = 0; i < count; i++) {
+                int cell = moves[i];
+                int score;
+                if (batchSiblings && i > 0) {
+                    if (i == 1 && scoreLeaves(context, board, moves, count, mover, maximizingPlayer)) {
+                        return 0;
+                    }
+                    score = context.leafScores[i];
+                } else {
+                    board.makeMove(cell, mover);
+                    
+                    score = alphabeta(context, board, maximizingPlayer, alpha, beta, depth + 1, maxDepth, true);
+                    
+                    board.undoMove(cell);
+                    
+                    if (context.isAborted()) {
+                        return 0;
+                    }
+                }
                 
-                board.undoMove(move.getRow(), move.getCol());
+                if (score < v) {
+                    v = score;
+                    bestCell = cell;
+                }
                 
                 beta = Math.min(beta, v);
                 
                 if (beta <= alpha) {
-                    pruneCount++;
+                    context.prunes++;
+                    if (context.control.moveOrdering) {
+                        context.orderer.recordCutoff(mover, bestCell, depth, remaining);
+                    }
                     break; // Alpha cut-off
                 }
             }
-            
-            return v;
         }
+        
+        // Fail-low results are upper bounds, fail-high results are lower bounds
+        int flag;
+        if (v <= originalAlpha) {
+            flag = TranspositionTable.UPPER_BOUND;
+        } else if (v >= originalBeta) {
+            flag = TranspositionTable.LOWER_BOUND;
+        } else {
+            flag = TranspositionTable.EXACT;
+        }
+        if (bestCell != TranspositionTable.NO_MOVE) {
+            bestCell = symmetry.apply(transform, bestCell);
+        }
+        table.store(key, v, remaining, flag, bestCell);
+        
+        return v;
     }
     
-    public int getNodesEvaluated() {
-        return nodesEvaluated;
+    /**
+     * Scores the leaves {@code moves[1..count)} with one batch call into
+     * {@code context.leafScores}.
+     * 
+     * @return true if the search must unwind
+     */
+    private boolean scoreLeaves(SearchContext context, Board board, int[] moves, int count, Player mover, Player maximizingPlayer) {
+        for (int i = 1; i < count; i++) {
+            if (context.visitNode()) {
+                return true;
+            }
+        }
+        context.control.batchEvaluator.evaluateChildren(board, moves, 1, count, mover, maximizingPlayer, context.leafScores);
+        return false;
     }
     
-    public int getPruneCount() {
-        return pruneCount;
+    /**
+     * Zobrist hash of the position extended with the side to move and the
+     * player the scores are relative to, since both change the stored value.
+     */
+    private static long positionKey(long positionHash, Player maximizingPlayer, boolean maximizingPlayerTurn) {
+        long key = positionHash;
+        if (!maximizingPlayerTurn) {
+            key ^= MINIMIZER_TO_MOVE_KEY;
+        }
+        if (maximizingPlayer == Player.O) {
+            key ^= MAXIMIZING_O_KEY;
+        }
+        return key;
+    }
+    
+    /**
+     * Sets the wall-clock budget per move for {@link SearchMode#ITERATIVE_DEEPENING} (0 = unlimited).
+     */
+    public void setTimeBudgetMillis(long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+    
+    /**
+     * Sets the node budget per move for {@link SearchMode#ITERATIVE_DEEPENING} (0 = unlimited).
+     */
+    public void setNodeBudget(long nodeBudget) {
+        this.nodeBudget = nodeBudget;
+    }
+    
+    public int getThreadCount() {
+        return threadCount;
+    }
+    
+    /**
+     * Sets the number of threads for the root search. With more than one thread the
+     * root moves are searched concurrently on a fork/join pool.
+     */
+    public void setThreadCount(int threadCount) {
+        this.threadCount = Math.max(1, threadCount);
+    }
+    
+    public ParallelMode getParallelMode() {
+        return parallelMode;
+    }
+    
+    /**
+     * Chooses how the threads set with {@link #setThreadCount(int)} share the work.
+     */
+    public void setParallelMode(ParallelMode parallelMode) {
+        this.parallelMode = parallelMode;
+    }
+    
+    public boolean isBatchLeaves() {
+        return batchLeaves;
+    }
+    
+    /**
+     * With a {@link BatchEvaluator}, scores the leaves below each node one ply above
+     * the depth limit in one call instead of one by one. Scores and moves do not change,
+     * but siblings after a cut-off are scored as well, so this only pays off when the
+     * evaluator's per-call cost outweighs those extra leaves. Off by default.
+     */
+    public void setBatchLeaves(boolean batchLeaves) {
+        this.batchLeaves = batchLeaves;
+    }
+    
+    public boolean isMoveOrdering() {
+        return moveOrdering;
+    }
+    
+    /**
+     * Turns move ordering off so moves are searched in board order, e.g. to measure
+     * how many cut-offs ordering gains. On by default.
+     */
+    public void setMoveOrdering(boolean moveOrdering) {
+        this.moveOrdering = moveOrdering;
+    }
+    
+    public SearchMode getSearchMode() {
+        return searchMode;
+    }
+    
+    public void setSearchMode(SearchMode searchMode) {
+        this.searchMode = searchMode;
+    }
+    
+    /**
+     * Drops the cached positions and the ordering statistics, killers included, that
+     * searches keep across a game; call it when a new game starts or between benchmark runs.
+     */
+    public void newGame() {
+        table.clear();
+        orderers.clear();
     }
     
-    public List<Move> getLastMoveScores() {
-        return new ArrayList<>(lastMoveScores);
+    public Evaluator getEvaluator() {
+        return evaluator;
     }
     
     public void setEvaluator(Evaluator evaluator) {
         this.evaluator = evaluator;
+        // Stored scores came from the previous evaluator
+        table.clear();
+        tableVersion = evaluator.getVersion();
     }
 }
@@ -0,0 +1,20 @@
+package edu.najah.ai.tictactoe.ai;
+
+import edu.najah.ai.tictactoe.game.Board;
+import edu.najah.ai.tictactoe.game.Player;
+
+/**
+ * Evaluator that can score all children of a position in one call. The search
+ * uses it one ply above the depth limit, where every child is a leaf, so models
+ * with a per-call cost can spread it over the siblings.
+ */
+public interface BatchEvaluator extends Evaluator {
+    
+    /**
+     * Scores the position after {@code mover} plays each of {@code cells[from..to)}.
+     * Each score must equal {@link #evaluate} on that child; the board is left unchanged.
+     * 
+     * @param scores receives the score of {@code cells[i]} in {@code scores[i]}
+     */
+    void evaluateChildren(Board board, int[] cells, int from, int to, Player mover, Player maximizingPlayer, int[] scores);
+}
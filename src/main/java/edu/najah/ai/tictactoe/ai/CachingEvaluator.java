@@ -0,0 +1,234 @@
+package edu.najah.ai.tictactoe.ai;
+
+import edu.najah.ai.tictactoe.game.Board;
+import edu.najah.ai.tictactoe.game.Player;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the scores of another evaluator, keyed by the board hash, the
+ * player the score is for and the evaluator's {@link Evaluator#getVersion version}.
+ * Meant for evaluators that are expensive compared to a table lookup, such as
+ * {@link MLEvaluator}.
+ * 
+ * The cache is a fixed array of 4-slot sets. A full set evicts with CLOCK: each
+ * slot has a reference bit set on every hit, and the set's hand skips (and clears)
+ * referenced slots until it finds one that has not been used since it last passed.
+ * Like {@link TranspositionTable}, entries are stored next to {@code key ^ data},
+ * so threads share the cache without locking and a torn read is just a miss.
+ */
+public class CachingEvaluator implements BatchEvaluator {
+    
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    
+    private static final int WAYS = 4;
+    private static final long PLAYER_O_KEY = 0x9E3779B97F4A7C15L;
+    private static final long VERSION_KEY = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRESENT = 1L << 32; // keeps stored data non-zero
+    
+    private final Evaluator delegate;
+    private final long[] keys;
+    private final long[] entries;
+    private final boolean[] referenced;
+    private final byte[] hands; // next slot the clock looks at, per set
+    private final int setMask;
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    
+    private static final ThreadLocal<MissBuffers> MISS_BUFFERS = ThreadLocal.withInitial(MissBuffers::new);
+    
+    /**
+     * Per-thread buffers for the children {@link #evaluateChildren} passes on to the delegate.
+     */
+    private static final class MissBuffers {
+        int[] cells = new int[0];
+        long[] keys = new long[0];
+        int[] indices = new int[0];
+        int[] scores = new int[0];
+        
+        void ensureCapacity(int count) {
+            if (cells.length < count) {
+                cells = new int[count];
+                keys = new long[count];
+                indices = new int[count];
+                scores = new int[count];
+            }
+        }
+    }
+    
+    public CachingEvaluator(Evaluator delegate) {
+        this(delegate, DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * @param delegate evaluator whose scores are cached
+     * @param capacity number of cached positions, rounded up to a power of two (at least 4)
+     */
+    public CachingEvaluator(Evaluator delegate, int capacity) {
+        this.delegate = delegate;
+        int sets = Integer.highestOneBit(Math.max(1, (capacity + WAYS - 1) / WAYS - 1)) << 1;
+        keys = new long[sets * WAYS];
+        entries = new long[sets * WAYS];
+        referenced = new boolean[sets * WAYS];
+        hands = new byte[sets];
+        setMask = sets - 1;
+    }
+    
+    @Override
+    public int evaluate(Board board, Player maximizingPlayer) {
+        long key = keyOf(board, maximizingPlayer);
+        long data = lookUp(key);
+        if (data != 0) {
+            return (int) data;
+        }
+        int score = delegate.evaluate(board, maximizingPlayer);
+        store(key, score);
+        return score;
+    }
+    
+    /**
+     * Answers the cached children and, if the delegate is a {@link BatchEvaluator},
+     * passes the rest to it in one batch.
+     */
+    @Override
+    public void evaluateChildren(Board board, int[] cells, int from, int to, Player mover, Player maximizingPlayer, int[] scores) {
+        if (!(delegate instanceof BatchEvaluator)) {
+            for (int i = from; i < to; i++) {
+                board.makeMove(cells[i], mover);
+                scores[i] = evaluate(board, maximizingPlayer);
+                board.undoMove(cells[i]);
+            }
+            return;
+        }
+        
+        MissBuffers buffers = MISS_BUFFERS.get();
+        buffers.ensureCapacity(to - from);
+        int missCount = 0;
+        for (int i = from; i < to; i++) {
+            board.makeMove(cells[i], mover);
+            long key = keyOf(board, maximizingPlayer);
+            board.undoMove(cells[i]);
+            long data = lookUp(key);
+            if (data != 0) {
+                scores[i] = (int) data;
+            } else {
+                buffers.cells[missCount] = cells[i];
+                buffers.keys[missCount] = key;
+                buffers.indices[missCount] = i;
+                missCount++;
+            }
+        }
+        if (missCount == 0) {
+            return;
+        }
+        
+        ((BatchEvaluator) delegate).evaluateChildren(board, buffers.cells, 0, missCount, mover, maximizingPlayer, buffers.scores);
+        for (int m = 0; m < missCount; m++) {
+            store(buffers.keys[m], buffers.scores[m]);
+            scores[buffers.indices[m]] = buffers.scores[m];
+        }
+    }
+    
+    /**
+     * The delegate's version, so a search clears its table when the delegate's scores change.
+     */
+    @Override
+    public long getVersion() {
+        return delegate.getVersion();
+    }
+    
+    private long keyOf(Board board, Player maximizingPlayer) {
+        long key = maximizingPlayer == Player.O ? board.getHash() ^ PLAYER_O_KEY : board.getHash();
+        // Scores from an older version no longer match and are evicted as they age
+        return key ^ delegate.getVersion() * VERSION_KEY;
+    }
+    
+    /**
+     * Returns the packed entry for {@code key}, or 0 on a miss, and counts the lookup.
+     */
+    private long lookUp(long key) {
+        int first = setOf(key) * WAYS;
+        for (int i = first; i < first + WAYS; i++) {
+            long data = entries[i];
+            if (data != 0 && (keys[i] ^ data) == key) {
+                referenced[i] = true;
+                hits.increment();
+                return data;
+            }
+        }
+        misses.increment();
+        return 0L;
+    }
+    
+    private void store(long key, int score) {
+        int set = setOf(key);
+        long data = (score & 0xFFFFFFFFL) | PRESENT;
+        int slot = victim(set, set * WAYS);
+        entries[slot] = data;
+        keys[slot] = key ^ data;
+        referenced[slot] = false;
+    }
+    
+    private int setOf(long key) {
+        return (int) (key ^ (key >>> 32)) & setMask;
+    }
+    
+    /**
+     * Picks the slot to overwrite in a set: an empty one if there is one,
+     * otherwise the first unreferenced slot from the clock hand.
+     */
+    private int victim(int set, int first) {
+        for (int i = first; i < first + WAYS; i++) {
+            if (entries[i] == 0) {
+                return i;
+            }
+        }
+        int hand = hands[set];
+        // One full turn clears every bit; the step limit only matters when other
+        // threads keep setting bits while the hand moves
+        for (int step = 0; step < 2 * WAYS && referenced[first + hand]; step++) {
+            referenced[first + hand] = false;
+            hand = (hand + 1) & (WAYS - 1);
+        }
+        hands[set] = (byte) ((hand + 1) & (WAYS - 1));
+        return first + hand;
+    }
+    
+    public Evaluator getDelegate() {
+        return delegate;
+    }
+    
+    public int getCapacity() {
+        return entries.length;
+    }
+    
+    public long getHits() {
+        return hits.sum();
+    }
+    
+    public long getMisses() {
+        return misses.sum();
+    }
+    
+    /**
+     * Fraction of lookups answered from the cache since it was created or cleared.
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+    
+    /**
+     * Drops every cached score and resets the counters, e.g. after the delegate's model changed.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(entries, 0L);
+        Arrays.fill(referenced, false);
+        hits.reset();
+        misses.reset();
+    }
+}
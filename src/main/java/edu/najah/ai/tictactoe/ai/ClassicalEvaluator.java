@@ -1,6 +1,7 @@
 package edu.najah.ai.tictactoe.ai;
 
 import edu.najah.ai.tictactoe.game.Board;
+import edu.najah.ai.tictactoe.game.BoardGeometry;
 import edu.najah.ai.tictactoe.game.Player;
 
 public class ClassicalEvaluator implements Evaluator {
@@ -10,6 +11,7 @@ public class ClassicalEvaluator implements Evaluator {
     private static final int CENTER_SCORE = 30;
     private static final int CORNER_SCORE = 20;
     private static final int TWO_IN_ROW_SCORE = 50;
+    private static final int OPEN_MARK_SCORE = 10;
     
     @Override
     public int evaluate(Board board, Player maximizingPlayer) {
@@ -26,110 +28,64 @@ public class ClassicalEvaluator implements Evaluator {
         
         // Non-terminal evaluation
         int score = 0;
+        BoardGeometry geometry = board.getGeometry();
         
         // Center control
-        if (board.getCell(1, 1) == maximizingPlayer) {
-            score += CENTER_SCORE;
-        } else if (board.getCell(1, 1) == maximizingPlayer.opponent()) {
-            score -= CENTER_SCORE;
-        }
+        score += cellScore(board.getCell(geometry.centerCell()), maximizingPlayer, CENTER_SCORE);
         
         // Corner control
-        int[][] corners = {{0, 0}, {0, 2}, {2, 0}, {2, 2}};
-        for (int[] corner : corners) {
-            if (board.getCell(corner[0], corner[1]) == maximizingPlayer) {
-                score += CORNER_SCORE;
-            } else if (board.getCell(corner[0], corner[1]) == maximizingPlayer.opponent()) {
-                score -= CORNER_SCORE;
-            }
-        }
-        
-        // Two in a row/column/diagonal (potential wins)
+        int lastRow = geometry.getRows() - 1;
+        int lastCol = geometry.getCols() - 1;
+        score += cellScore(board.getCell(0, 0), maximizingPlayer, CORNER_SCORE);
+        score += cellScore(board.getCell(0, lastCol), maximizingPlayer, CORNER_SCORE);
+        score += cellScore(board.getCell(lastRow, 0), maximizingPlayer, CORNER_SCORE);
+        score += cellScore(board.getCell(lastRow, lastCol), maximizingPlayer, CORNER_SCORE);
+        
+        // k-1 in a row/column/diagonal (potential wins)
         score += evaluateLines(board, maximizingPlayer);
         
         return score;
     }
     
+    private int cellScore(Player owner, Player player, int weight) {
+        if (owner == player) {
+            return weight;
+        } else if (owner == player.opponent()) {
+            return -weight;
+        }
+        return 0;
+    }
+    
+    /**
+     * Sums the open lines of both sides from the counts the board keeps up to date,
+     * so the cost depends on k rather than on the number of lines.
+     */
     private int evaluateLines(Board board, Player player) {
+        int winLength = board.getWinLength();
+        Player opponent = player.opponent();
         int score = 0;
         
-        // Check all rows
-        for (int i = 0; i < 3; i++) {
-            score += evaluateLine(
-                board.getCell(i, 0),
-                board.getCell(i, 1),
-                board.getCell(i, 2),
-                player
-            );
-        }
-        
-        // Check all columns
-        for (int j = 0; j < 3; j++) {
-            score += evaluateLine(
-                board.getCell(0, j),
-                board.getCell(1, j),
-                board.getCell(2, j),
-                player
-            );
+        // Lines blocked by both players can no longer be won and are not counted
+        for (int marks = 1; marks < winLength; marks++) {
+            int open = board.getOpenLineCount(player, marks) - board.getOpenLineCount(opponent, marks);
+            score += open * lineScore(marks, winLength);
         }
         
-        // Check diagonals
-        score += evaluateLine(
-            board.getCell(0, 0),
-            board.getCell(1, 1),
-            board.getCell(2, 2),
-            player
-        );
-        
-        score += evaluateLine(
-            board.getCell(0, 2),
-            board.getCell(1, 1),
-            board.getCell(2, 0),
-            player
-        );
-        
         return score;
     }
     
-    private int evaluateLine(Player p1, Player p2, Player p3, Player player) {
-        int playerCount = 0;
-        int opponentCount = 0;
-        int emptyCount = 0;
-        
-        Player opponent = player.opponent();
-        
-        if (p1 == player) playerCount++;
-        else if (p1 == opponent) opponentCount++;
-        else emptyCount++;
-        
-        if (p2 == player) playerCount++;
-        else if (p2 == opponent) opponentCount++;
-        else emptyCount++;
-        
-        if (p3 == player) playerCount++;
-        else if (p3 == opponent) opponentCount++;
-        else emptyCount++;
-        
-        // Two of mine and one empty = good
-        if (playerCount == 2 && emptyCount == 1) {
-            return TWO_IN_ROW_SCORE;
-        }
-        
-        // Two of opponent and one empty = bad (need to block)
-        if (opponentCount == 2 && emptyCount == 1) {
-            return -TWO_IN_ROW_SCORE;
+    /**
+     * Value of an otherwise empty line holding {@code count} marks of one player.
+     * On 3x3 this is 50 for two in a row and 10 for a single mark.
+     */
+    private int lineScore(int count, int winLength) {
+        if (count == 0) {
+            return 0;
         }
-        
-        // One of mine and two empty = slight advantage
-        if (playerCount == 1 && emptyCount == 2) {
-            return 10;
-        }
-        
-        // One of opponent and two empty = slight disadvantage
-        if (opponentCount == 1 && emptyCount == 2) {
-            return -10;
+        // One mark short of a win = good (or bad, need to block)
+        if (count == winLength - 1) {
+            return TWO_IN_ROW_SCORE;
         }
-        
-        return 0;
+        return OPEN_MARK_SCORE * count;
     }
 }
@@ -13,4 +13,12 @@ public interface Evaluator {
      * @return evaluation score
      */
     int evaluate(Board board, Player maximizingPlayer);
+    
+    /**
+     * Changes whenever the same position may start scoring differently (e.g. new
+     * model weights), so cached scores from an earlier version are not reused.
+     */
+    default long getVersion() {
+        return 0;
+    }
 }
@@ -2,14 +2,39 @@ package edu.najah.ai.tictactoe.ai;
 
 import edu.najah.ai.tictactoe.game.Board;
 import edu.najah.ai.tictactoe.game.Player;
+import edu.najah.ai.tictactoe.ml.FeatureBlock;
 import edu.najah.ai.tictactoe.ml.FeatureExtractor;
 import edu.najah.ai.tictactoe.ml.TrainedModel;
 
-public class MLEvaluator implements Evaluator {
+/**
+ * Scores positions with the trained model. While the model is still training in the
+ * background ({@link TrainedModel#initializeAsync()}), positions are scored by a
+ * {@link ClassicalEvaluator} instead; the version changes when the weights arrive, so
+ * caches keyed on it drop the fallback scores.
+ */
+public class MLEvaluator implements BatchEvaluator {
     
     private static final int WIN_SCORE = 1000;
     private static final int LOSS_SCORE = -1000;
     
+    private static final Evaluator FALLBACK = new ClassicalEvaluator();
+    
+    // Evaluators are shared by search threads, so each thread extracts into its own buffer
+    private static final ThreadLocal<int[]> FEATURES =
+        ThreadLocal.withInitial(() -> new int[FeatureExtractor.FEATURE_COUNT]);
+    private static final ThreadLocal<Batch> BATCHES = ThreadLocal.withInitial(Batch::new);
+    
+    // Marks children that still wait for the model in evaluateChildren
+    private static final int PENDING = Integer.MIN_VALUE;
+    
+    /**
+     * Per-thread buffers for {@link #evaluateChildren}.
+     */
+    private static final class Batch {
+        final FeatureBlock block = new FeatureBlock(16);
+        int[] scores = new int[16];
+    }
+    
     @Override
     public int evaluate(Board board, Player maximizingPlayer) {
         Player winner = board.checkWinner();
@@ -23,20 +48,72 @@ public class MLEvaluator implements Evaluator {
             return 0; // Draw
         }
         
-        // Extract features and predict
+        if (!TrainedModel.isTrained()) {
+            return FALLBACK.evaluate(board, maximizingPlayer);
+        }
+        
+        // Extract features and look up the model's score for them
         // The model is trained to predict X wins (+) vs O wins (-)
-        double[] features = FeatureExtractor.extract(board, maximizingPlayer);
-        double mlScore = TrainedModel.predict(features);
+        int[] features = FEATURES.get();
+        FeatureExtractor.extract(board, maximizingPlayer, features);
+        int mlScore = TrainedModel.predictScaled(features);
         
         // The model always predicts from X's perspective:
         // Positive score = X is winning, Negative score = O is winning
         // If the AI is playing as O, we need to negate the score
-        if (maximizingPlayer == Player.O) {
-            mlScore = -mlScore;
+        return maximizingPlayer == Player.O ? -mlScore : mlScore;
+    }
+    
+    /**
+     * Collects the non-terminal children into one feature block and scores it
+     * with a single batch inference call.
+     */
+    @Override
+    public void evaluateChildren(Board board, int[] cells, int from, int to, Player mover, Player maximizingPlayer, int[] scores) {
+        if (!TrainedModel.isTrained()) {
+            for (int i = from; i < to; i++) {
+                board.makeMove(cells[i], mover);
+                scores[i] = FALLBACK.evaluate(board, maximizingPlayer);
+                board.undoMove(cells[i]);
+            }
+            return;
         }
         
-        // Scale the score to a reasonable range for minimax
-        // The raw ML score can be any value, so we scale it
-        return (int) (mlScore * 10);
+        Batch batch = BATCHES.get();
+        FeatureBlock block = batch.block;
+        block.clear();
+        
+        for (int i = from; i < to; i++) {
+            board.makeMove(cells[i], mover);
+            if (board.isTerminal()) {
+                scores[i] = evaluate(board, maximizingPlayer);
+            } else {
+                block.add(board);
+                scores[i] = PENDING;
+            }
+            board.undoMove(cells[i]);
+        }
+        if (block.size() == 0) {
+            return;
+        }
+        
+        if (batch.scores.length < block.size()) {
+            batch.scores = new int[Math.max(block.size(), 2 * batch.scores.length)];
+        }
+        TrainedModel.predictScaled(block, batch.scores);
+        
+        // Rows were added in child order, skipping terminal children
+        int row = 0;
+        for (int i = from; i < to; i++) {
+            if (scores[i] == PENDING) {
+                int mlScore = batch.scores[row++];
+                scores[i] = maximizingPlayer == Player.O ? -mlScore : mlScore;
+            }
+        }
+    }
+    
+    @Override
+    public long getVersion() {
+        return TrainedModel.getVersion();
     }
 }
@@ -0,0 +1,182 @@
+package edu.najah.ai.tictactoe.ai;
+
+import edu.najah.ai.tictactoe.game.Board;
+import edu.najah.ai.tictactoe.game.Player;
+
+import java.util.Arrays;
+
+/**
+ * Orders moves so Alpha-Beta finds cut-offs early:
+ * hash move first, then immediate wins, then blocks of the opponent's wins,
+ * then the killer moves of the current ply, then the rest by history score.
+ * 
+ * One orderer per board size holds the state kept across the searches of a game:
+ * the history scores, halved at the start of each search, and the killer moves,
+ * stored by game ply (moves played before the root plus distance from the root)
+ * so the next search finds them at the right depth. Every search thread works on
+ * its own copy from {@link #forThread(int)}, with a copy of the killers, its own
+ * scratch buffers and the shared history table.
+ */
+public class MoveOrderer {
+    
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int WIN_SCORE = 1 << 29;
+    private static final int BLOCK_SCORE = 1 << 28;
+    private static final int KILLER_SCORE = 1 << 27;
+    private static final int KILLERS_PER_PLY = 2;
+    
+    private final int cells;
+    private final int[][] killers;        // [ply][slot] = cell, -1 if empty; game ply in the shared orderer
+    private final int[][] history;        // [X=0 / O=1][cell]
+    private final int[][] scoreBuffers;   // per-ply scratch space for sorting
+    private final MoveOrderer shared;     // null for the shared orderer itself
+    private final int rootPly;            // moves played before the search root
+    
+    public MoveOrderer(int cellCount) {
+        cells = cellCount;
+        killers = new int[cellCount + 1][KILLERS_PER_PLY];
+        history = new int[2][cellCount];
+        scoreBuffers = new int[cellCount + 1][cellCount];
+        shared = null;
+        rootPly = 0;
+        clearKillers();
+    }
+    
+    private MoveOrderer(MoveOrderer shared, int rootPly) {
+        cells = shared.cells;
+        history = shared.history;
+        killers = new int[cells + 1][KILLERS_PER_PLY];
+        scoreBuffers = new int[cells + 1][cells];
+        this.shared = shared;
+        this.rootPly = rootPly;
+        clearKillers();
+        for (int ply = 0; rootPly + ply <= cells; ply++) {
+            killers[ply][0] = shared.killers[rootPly + ply][0];
+            killers[ply][1] = shared.killers[rootPly + ply][1];
+        }
+    }
+    
+    /**
+     * Returns an orderer for one search thread of a search whose root has
+     * {@code rootPly} moves on the board, starting with the killers kept for the
+     * game. History updates are shared without locking; a lost update only makes
+     * ordering slightly worse.
+     */
+    public MoveOrderer forThread(int rootPly) {
+        return new MoveOrderer(this, rootPly);
+    }
+    
+    /**
+     * Returns another orderer for the same search as this thread's orderer.
+     */
+    public MoveOrderer forThread() {
+        return shared == null ? forThread(0) : shared.forThread(rootPly);
+    }
+    
+    /**
+     * Stores this thread's killers in the shared orderer for the next search of the
+     * game. Concurrent searches may interleave their killers; they are only hints.
+     */
+    public void keepKillers() {
+        if (shared == null) {
+            return;
+        }
+        for (int ply = 0; rootPly + ply <= cells; ply++) {
+            shared.killers[rootPly + ply][0] = killers[ply][0];
+            shared.killers[rootPly + ply][1] = killers[ply][1];
+        }
+    }
+    
+    /**
+     * Halves the history scores so recent cut-offs weigh more; called once per search.
+     */
+    public void ageHistory() {
+        for (int[] side : history) {
+            for (int i = 0; i < side.length; i++) {
+                side[i] >>= 1;
+            }
+        }
+    }
+    
+    /**
+     * Forgets everything learned so far.
+     */
+    public void clear() {
+        for (int[] side : history) {
+            Arrays.fill(side, 0);
+        }
+        clearKillers();
+    }
+    
+    private void clearKillers() {
+        for (int[] slots : killers) {
+            slots[0] = -1;
+            slots[1] = -1;
+        }
+    }
+    
+    /**
+     * Sorts the first {@code count} cells of {@code moves} in place, best candidates first.
+     * 
+     * @param board position before the move
+     * @param moves legal moves in this position, as cell indices
+     * @param count number of moves
+     * @param mover player to move
+     * @param ply distance from the root
+     * @param hashCell best move from the transposition table, or -1
+     */
+    public void order(Board board, int[] moves, int count, Player mover, int ply, int hashCell) {
+        int[] scores = scoreBuffers[ply];
+        int[] sideHistory = history[side(mover)];
+        int[] plyKillers = killers[ply];
+        Player opponent = mover.opponent();
+        
+        for (int i = 0; i < count; i++) {
+            int cell = moves[i];
+            int score;
+            if (cell == hashCell) {
+                score = HASH_MOVE_SCORE;
+            } else if (board.isWinningMove(cell, mover)) {
+                score = WIN_SCORE;
+            } else if (board.isWinningMove(cell, opponent)) {
+                score = BLOCK_SCORE;
+            } else if (cell == plyKillers[0] || cell == plyKillers[1]) {
+                score = KILLER_SCORE + (cell == plyKillers[0] ? 1 : 0);
+            } else {
+                score = Math.min(sideHistory[cell], KILLER_SCORE - 1);
+            }
+            
+            // Insertion sort: move lists are short and often nearly ordered
+            int j = i;
+            while (j > 0 && scores[j - 1] < score) {
+                scores[j] = scores[j - 1];
+                moves[j] = moves[j - 1];
+                j--;
+            }
+            scores[j] = score;
+            moves[j] = cell;
+        }
+    }
+    
+    /**
+     * Records a move that caused a cut-off.
+     * 
+     * @param mover player who made the move
+     * @param cell the move
+     * @param ply distance from the root
+     * @param remainingDepth depth still to search below the node; deeper cut-offs count more
+     */
+    public void recordCutoff(Player mover, int cell, int ply, int remainingDepth) {
+        int[] plyKillers = killers[ply];
+        if (plyKillers[0] != cell) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = cell;
+        }
+        int[] sideHistory = history[side(mover)];
+        sideHistory[cell] = Math.min(sideHistory[cell] + remainingDepth * remainingDepth, KILLER_SCORE - 1);
+    }
+    
+    private static int side(Player player) {
+        return player == Player.X ? 0 : 1;
+    }
+}
@@ -0,0 +1,6 @@
+package edu.najah.ai.tictactoe.ai;
+
+public enum ParallelMode {
+    ROOT_SPLIT,     // Root moves are shared out between the threads
+    LAZY_SMP        // Every thread searches the whole tree; helpers fill the shared table for the main thread
+}
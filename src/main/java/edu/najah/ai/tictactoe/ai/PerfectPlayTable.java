@@ -0,0 +1,158 @@
+package edu.najah.ai.tictactoe.ai;
+
+import edu.najah.ai.tictactoe.game.Board;
+import edu.najah.ai.tictactoe.game.Player;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Game-theoretic value of every 3x3 position, loaded from the table produced by
+ * {@link RetrogradeSolver}. Move selection is a lookup over the empty cells, so it
+ * runs in constant time and allocates nothing.
+ */
+public class PerfectPlayTable {
+    
+    public static final String RESOURCE_PATH = "/solver/tictactoe_3x3.bin";
+    
+    public static final int NO_MOVE = -1;
+    
+    private static final int WIN_SCORE = 1000;
+    private static final int LOSS_SCORE = -1000;
+    
+    private static volatile byte[] table;
+    
+    /**
+     * Loads the table from resources. Falls back to solving in memory if the
+     * resource is missing or damaged. Safe to call more than once.
+     */
+    public static void load() {
+        if (table != null) {
+            return;
+        }
+        synchronized (PerfectPlayTable.class) {
+            if (table != null) {
+                return;
+            }
+            try {
+                table = readResource();
+                System.out.println("Loaded perfect-play table from " + RESOURCE_PATH);
+            } catch (IOException e) {
+                System.err.println("Could not load perfect-play table: " + e.getMessage());
+                System.out.println("Solving 3x3 positions in memory instead");
+                table = RetrogradeSolver.solve();
+            }
+        }
+    }
+    
+    private static byte[] readResource() throws IOException {
+        InputStream is = PerfectPlayTable.class.getResourceAsStream(RESOURCE_PATH);
+        if (is == null) {
+            throw new IOException("Table file not found: " + RESOURCE_PATH);
+        }
+        try (DataInputStream in = new DataInputStream(is)) {
+            byte[] magic = new byte[RetrogradeSolver.MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, RetrogradeSolver.MAGIC)) {
+                throw new IOException("Not a perfect-play table");
+            }
+            int version = in.readUnsignedByte();
+            if (version != RetrogradeSolver.FORMAT_VERSION) {
+                throw new IOException("Unsupported table version " + version);
+            }
+            byte[] data = new byte[RetrogradeSolver.POSITIONS];
+            in.readFully(data);
+            return data;
+        }
+    }
+    
+    public static boolean isLoaded() {
+        return table != null;
+    }
+    
+    /**
+     * True if the table can answer for this board with {@code player} to move:
+     * a standard 3x3 board in a legal, non-terminal position where it is that player's turn.
+     */
+    public static boolean covers(Board board, Player player) {
+        if (table == null || board.getRows() != 3 || board.getCols() != 3 || board.getWinLength() != 3) {
+            return false;
+        }
+        if (board.isTerminal()) {
+            return false;
+        }
+        int index = indexOf(board);
+        return table[index] != RetrogradeSolver.ILLEGAL && sideToMove(board) == player;
+    }
+    
+    /**
+     * Returns the cell index of a perfect move for {@code player}: the fastest win,
+     * otherwise a draw, otherwise the slowest loss. Ties go to the lowest cell.
+     * Only valid when {@link #covers} is true.
+     */
+    public static int bestCell(Board board, Player player) {
+        int index = indexOf(board);
+        int digit = player == Player.X ? 1 : 2;
+        int bestCell = NO_MOVE;
+        int bestScore = Integer.MIN_VALUE;
+        for (int cell = 0; cell < RetrogradeSolver.CELLS; cell++) {
+            if (RetrogradeSolver.digit(index, cell) != 0) {
+                continue;
+            }
+            int score = scoreOfChild(table[index + digit * RetrogradeSolver.pow3(cell)]);
+            if (score > bestScore) {
+                bestScore = score;
+                bestCell = cell;
+            }
+        }
+        return bestCell;
+    }
+    
+    /**
+     * Score of playing {@code cell} for {@code player}, on the evaluators' +/-1000 scale.
+     * Wins score higher the sooner they happen, losses score higher the later they happen.
+     */
+    public static int scoreOf(Board board, Player player, int cell) {
+        int digit = player == Player.X ? 1 : 2;
+        return scoreOfChild(table[indexOf(board) + digit * RetrogradeSolver.pow3(cell)]);
+    }
+    
+    private static int scoreOfChild(int child) {
+        // The child is stored from the opponent's point of view
+        int distance = RetrogradeSolver.distanceOf(child) + 1;
+        switch (RetrogradeSolver.valueOf(child)) {
+            case RetrogradeSolver.LOSS:
+                return WIN_SCORE - distance;
+            case RetrogradeSolver.WIN:
+                return LOSS_SCORE + distance;
+            default:
+                return 0;
+        }
+    }
+    
+    private static int indexOf(Board board) {
+        int index = 0;
+        for (int cell = 0; cell < RetrogradeSolver.CELLS; cell++) {
+            Player p = board.getCell(cell);
+            if (p == Player.X) {
+                index += RetrogradeSolver.pow3(cell);
+            } else if (p == Player.O) {
+                index += 2 * RetrogradeSolver.pow3(cell);
+            }
+        }
+        return index;
+    }
+    
+    private static Player sideToMove(Board board) {
+        int x = 0;
+        int o = 0;
+        for (int cell = 0; cell < RetrogradeSolver.CELLS; cell++) {
+            Player p = board.getCell(cell);
+            if (p == Player.X) x++;
+            else if (p == Player.O) o++;
+        }
+        return x == o ? Player.X : Player.O;
+    }
+}
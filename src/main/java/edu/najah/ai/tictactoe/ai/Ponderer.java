@@ -0,0 +1,253 @@
+package edu.najah.ai.tictactoe.ai;
+
+import edu.najah.ai.tictactoe.game.Board;
+import edu.najah.ai.tictactoe.game.Move;
+import edu.najah.ai.tictactoe.game.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Searches the engine's answers to the opponent's likely moves while the opponent
+ * is thinking ("pondering"). Replies are predicted with a shallow search from the
+ * opponent's side; on small boards every reply is pondered. Finished searches are
+ * kept until the opponent moves, so the engine can answer a predicted move at once.
+ * Pondering stops when its time budget is spent, when {@link #stop()} is called,
+ * or when the opponent moves.
+ */
+public class Ponderer {
+    
+    /**
+     * Positions with at most this many legal replies ponder all of them.
+     */
+    public static final int ALL_REPLIES_LIMIT = 9;
+    
+    private static final int PREDICTION_DEPTH = 2;
+    
+    private final AlphaBeta engine;
+    private volatile int candidates = 3;
+    private volatile long budgetMillis = 2000;
+    private volatile Session session;
+    private volatile Pending claimed; // running search handed out by take()
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder pondered = new LongAdder();
+    
+    /**
+     * One search for a position after a predicted reply. The result completes with
+     * null if the search was cancelled.
+     */
+    private static final class Pending {
+        final long key;
+        final SearchHandle handle = new SearchHandle();
+        final CompletableFuture<SearchResult> result = new CompletableFuture<>();
+        
+        Pending(long key) {
+            this.key = key;
+        }
+    }
+    
+    /**
+     * State of pondering during one opponent turn.
+     */
+    private static final class Session {
+        final Map<Long, SearchResult> results = new ConcurrentHashMap<>();
+        volatile Pending pending;
+        volatile boolean stopped;
+        volatile Pending adopted; // the running search claimed by take(), which is left to finish
+        
+        /**
+         * Stops the session: no new search starts, and the running one is cancelled
+         * unless it is the adopted one. Safe to call from any thread.
+         */
+        void cancel() {
+            stopped = true;
+            Pending current = pending;
+            if (current != null && current != adopted) {
+                current.handle.cancel();
+            }
+        }
+    }
+    
+    public Ponderer(AlphaBeta engine) {
+        this.engine = engine;
+    }
+    
+    /**
+     * Starts pondering on {@code executor}: {@code opponent} is to move in {@code position}
+     * and {@code player} will answer with a search like
+     * {@link AlphaBeta#search(Board, Player, Difficulty, int)}. Replaces any earlier session.
+     */
+    public void start(Board position, Player opponent, Player player, Difficulty difficulty, int depthLimit, Executor executor) {
+        stop();
+        Session current = new Session();
+        session = current;
+        Board board = new Board(position);
+        executor.execute(() -> ponder(current, board, opponent, player, difficulty, depthLimit));
+        CompletableFuture.delayedExecutor(budgetMillis, TimeUnit.MILLISECONDS).execute(current::cancel);
+    }
+    
+    /**
+     * Stops pondering and forgets its results, also cancelling a running search
+     * handed out by {@link #take(Board)}.
+     */
+    public void stop() {
+        Session current = session;
+        session = null;
+        if (current != null) {
+            current.cancel();
+        }
+        Pending running = claimed;
+        claimed = null;
+        if (running != null) {
+            running.handle.cancel();
+        }
+    }
+    
+    /**
+     * Called once the opponent has moved: stops pondering and returns the pondered
+     * search of {@code position}, or null if it was not pondered. A search of
+     * {@code position} that is still running is allowed to finish; its future completes
+     * with null if the budget cut it short. A hit is counted once the returned future
+     * completes with a result, anything else is a miss.
+     */
+    public CompletableFuture<SearchResult> take(Board position) {
+        Session current = session;
+        session = null;
+        if (current == null) {
+            return null;
+        }
+        long key = position.getHash();
+        
+        CompletableFuture<SearchResult> answer = null;
+        Pending running = current.pending;
+        if (running != null && running.key == key) {
+            // Finish this search, start no other
+            current.adopted = running;
+            claimed = running;
+            answer = running.result;
+        }
+        current.cancel();
+        SearchResult cached = current.results.get(key);
+        if (cached != null) {
+            answer = CompletableFuture.completedFuture(cached);
+        }
+        
+        if (answer == null) {
+            misses.increment();
+            return null;
+        }
+        // Counted before the caller's own callbacks run
+        return answer.whenComplete((result, error) -> (result != null ? hits : misses).increment());
+    }
+    
+    private void ponder(Session current, Board board, Player opponent, Player player, Difficulty difficulty, int depthLimit) {
+        for (int cell : predictReplies(current, board, opponent, depthLimit)) {
+            if (current.stopped) {
+                return;
+            }
+            board.makeMove(cell, opponent);
+            if (!board.isTerminal()) {
+                Pending search = new Pending(board.getHash());
+                current.pending = search;
+                // Re-check after publishing, so a concurrent cancel() always reaches a search
+                if (current.stopped && search != current.adopted) {
+                    search.result.complete(null);
+                    return;
+                }
+                try {
+                    SearchResult result = engine.search(board, player, difficulty, depthLimit, search.handle);
+                    boolean complete = !search.handle.isCancelled() && result.getBestMove() != null;
+                    if (complete) {
+                        current.results.put(search.key, result);
+                        pondered.increment();
+                    }
+                    search.result.complete(complete ? result : null);
+                } catch (RuntimeException e) {
+                    search.result.completeExceptionally(e);
+                    throw e;
+                }
+            }
+            board.undoMove(cell);
+        }
+    }
+    
+    /**
+     * Replies of {@code opponent}, most likely first: all of them on small boards,
+     * the best few by a shallow search otherwise.
+     */
+    private int[] predictReplies(Session current, Board board, Player opponent, int depthLimit) {
+        int[] cells = new int[board.getGeometry().getCellCount()];
+        int count = board.getAvailableMoves(cells);
+        int wanted = count <= ALL_REPLIES_LIMIT ? count : Math.min(count, candidates);
+        
+        Pending prediction = new Pending(~board.getHash()); // never matches a position after a reply
+        current.pending = prediction;
+        if (current.stopped) {
+            return new int[0];
+        }
+        SearchResult guess = engine.search(board, opponent, Difficulty.HARD, Math.min(PREDICTION_DEPTH, depthLimit), prediction.handle);
+        List<Move> moves = new ArrayList<>(guess.getMoveScores());
+        if (moves.isEmpty()) {
+            return Arrays.copyOf(cells, wanted); // cancelled or looked up: board order
+        }
+        moves.sort((m1, m2) -> Integer.compare(m2.getScore(), m1.getScore()));
+        
+        int[] replies = new int[Math.min(wanted, moves.size())];
+        for (int i = 0; i < replies.length; i++) {
+            replies[i] = board.getGeometry().cellIndex(moves.get(i).getRow(), moves.get(i).getCol());
+        }
+        return replies;
+    }
+    
+    /**
+     * Predicted replies pondered on boards with more than {@link #ALL_REPLIES_LIMIT} legal moves (default 3).
+     */
+    public void setCandidates(int candidates) {
+        this.candidates = Math.max(1, candidates);
+    }
+    
+    /**
+     * Wall-clock time pondering may use per opponent turn (default 2000 ms). A search
+     * uses as many cores as the engine's thread count.
+     */
+    public void setBudgetMillis(long budgetMillis) {
+        this.budgetMillis = Math.max(1, budgetMillis);
+    }
+    
+    public long getBudgetMillis() {
+        return budgetMillis;
+    }
+    
+    /**
+     * Opponent moves whose answer had been pondered to completion.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+    
+    public long getMisses() {
+        return misses.sum();
+    }
+    
+    /**
+     * Positions searched to completion while pondering.
+     */
+    public long getPondered() {
+        return pondered.sum();
+    }
+    
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+}
@@ -0,0 +1,210 @@
+package edu.najah.ai.tictactoe.ai;
+
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Solves 3x3 Tic-Tac-Toe by retrograde analysis.
+ * 
+ * Every position is indexed by its base-3 encoding (digit 0 = empty, 1 = X, 2 = O,
+ * cell {@code row * 3 + col} weighted by 3^cell). Positions are solved from the
+ * full board backwards, so each child is final before its parents are visited.
+ * The result for each position is one byte: the value for the side to move and
+ * the number of plies until the game ends under perfect play.
+ * 
+ * Run {@code main} to regenerate {@code src/main/resources/solver/tictactoe_3x3.bin}.
+ */
+public class RetrogradeSolver {
+    
+    public static final int CELLS = 9;
+    public static final int POSITIONS = 19683; // 3^9
+    
+    // Entry layout: value in the low 2 bits, distance to the result above it
+    public static final int ILLEGAL = 0;
+    public static final int WIN = 1;
+    public static final int DRAW = 2;
+    public static final int LOSS = 3;
+    
+    static final byte[] MAGIC = {'T', 'T', 'T', '3'};
+    static final int FORMAT_VERSION = 1;
+    
+    private static final int[] POW3 = {1, 3, 9, 27, 81, 243, 729, 2187, 6561};
+    private static final int[][] LINES = {
+        {0, 1, 2}, {3, 4, 5}, {6, 7, 8},
+        {0, 3, 6}, {1, 4, 7}, {2, 5, 8},
+        {0, 4, 8}, {2, 4, 6}
+    };
+    
+    public static int entry(int value, int distance) {
+        return value | (distance << 2);
+    }
+    
+    public static int valueOf(int entry) {
+        return entry & 0x3;
+    }
+    
+    public static int distanceOf(int entry) {
+        return entry >>> 2;
+    }
+    
+    public static int digit(int index, int cell) {
+        return index / POW3[cell] % 3;
+    }
+    
+    public static int pow3(int cell) {
+        return POW3[cell];
+    }
+    
+    /**
+     * Computes the value of every legal position.
+     * 
+     * @return one entry per base-3 index; {@link #ILLEGAL} for unreachable positions
+     */
+    public static byte[] solve() {
+        byte[] table = new byte[POSITIONS];
+        
+        // Bucket legal positions by number of marks, then solve from 9 marks down to 0
+        for (int marks = CELLS; marks >= 0; marks--) {
+            for (int index = 0; index < POSITIONS; index++) {
+                int[] counts = countMarks(index);
+                if (counts[0] + counts[1] != marks || !isLegal(index, counts)) {
+                    continue;
+                }
+                table[index] = (byte) solvePosition(index, counts, table);
+            }
+        }
+        return table;
+    }
+    
+    private static int solvePosition(int index, int[] counts, byte[] table) {
+        // The player who just moved may have completed a line
+        if (hasLine(index, 1) || hasLine(index, 2)) {
+            return entry(LOSS, 0);
+        }
+        if (counts[0] + counts[1] == CELLS) {
+            return entry(DRAW, 0);
+        }
+        
+        int mover = counts[0] == counts[1] ? 1 : 2;
+        int bestWin = Integer.MAX_VALUE;
+        int longestLoss = -1;
+        int shortestDraw = Integer.MAX_VALUE;
+        
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (digit(index, cell) != 0) {
+                continue;
+            }
+            int child = table[index + mover * POW3[cell]];
+            int distance = distanceOf(child) + 1;
+            switch (valueOf(child)) {
+                case LOSS:
+                    bestWin = Math.min(bestWin, distance);
+                    break;
+                case DRAW:
+                    shortestDraw = Math.min(shortestDraw, distance);
+                    break;
+                default:
+                    longestLoss = Math.max(longestLoss, distance);
+                    break;
+            }
+        }
+        
+        // Win as fast as possible, otherwise draw, otherwise lose as slowly as possible
+        if (bestWin != Integer.MAX_VALUE) {
+            return entry(WIN, bestWin);
+        } else if (shortestDraw != Integer.MAX_VALUE) {
+            return entry(DRAW, shortestDraw);
+        }
+        return entry(LOSS, longestLoss);
+    }
+    
+    private static int[] countMarks(int index) {
+        int x = 0;
+        int o = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            int d = digit(index, cell);
+            if (d == 1) x++;
+            else if (d == 2) o++;
+        }
+        return new int[]{x, o};
+    }
+    
+    /**
+     * A position is reachable if X moved first, play alternated and play stopped at the first win.
+     */
+    private static boolean isLegal(int index, int[] counts) {
+        int x = counts[0];
+        int o = counts[1];
+        if (x != o && x != o + 1) {
+            return false;
+        }
+        boolean xLine = hasLine(index, 1);
+        boolean oLine = hasLine(index, 2);
+        if (xLine && oLine) {
+            return false;
+        }
+        if (xLine && x != o + 1) {
+            return false; // X must have made the last move
+        }
+        if (oLine && x != o) {
+            return false; // O must have made the last move
+        }
+        if (xLine || oLine) {
+            // Removing some mark of the winning line must give a non-terminal parent
+            int winner = xLine ? 1 : 2;
+            for (int cell = 0; cell < CELLS; cell++) {
+                if (digit(index, cell) == winner && !hasLine(index - winner * POW3[cell], winner)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+    
+    private static boolean hasLine(int index, int player) {
+        for (int[] line : LINES) {
+            if (digit(index, line[0]) == player && digit(index, line[1]) == player && digit(index, line[2]) == player) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Writes the solved table: magic, format version, then one byte per position.
+     */
+    public static void write(byte[] table, Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(path.toFile()))) {
+            out.write(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.write(table);
+        }
+    }
+    
+    public static void main(String[] args) throws IOException {
+        Path path = Paths.get(args.length > 0 ? args[0] : "src/main/resources" + PerfectPlayTable.RESOURCE_PATH);
+        long start = System.nanoTime();
+        byte[] table = solve();
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        
+        int legal = 0;
+        for (byte b : table) {
+            if (b != ILLEGAL) legal++;
+        }
+        write(table, path);
+        
+        int root = table[0];
+        System.out.println("Solved " + legal + " legal positions in " + elapsed + " ms");
+        System.out.println("Empty board: value=" + valueOf(root) + " distance=" + distanceOf(root));
+        System.out.println("Written to " + path.toAbsolutePath());
+    }
+}
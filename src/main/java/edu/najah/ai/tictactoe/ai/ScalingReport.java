@@ -0,0 +1,129 @@
+package edu.najah.ai.tictactoe.ai;
+
+import edu.najah.ai.tictactoe.game.Board;
+import edu.najah.ai.tictactoe.game.Move;
+import edu.najah.ai.tictactoe.game.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures how the parallel search scales from 1 to N threads.
+ * 
+ * Every parallel mode searches the same set of positions with 1, 2, 4, ...
+ * threads up to the number of cores (or the first argument). For each run the
+ * report shows wall time, speedup over one thread, total nodes, nodes per
+ * second, how evenly the nodes were spread over the threads, and whether the
+ * chosen moves match the single-threaded ones.
+ * 
+ * Run {@code main} from the command line; the optional second argument is the
+ * search depth (default 3).
+ */
+public class ScalingReport {
+    
+    private static final int WARMUP_ROUNDS = 2;
+    
+    public static void main(String[] args) {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        List<Board> positions = positions();
+        
+        System.out.println("Cores available: " + Runtime.getRuntime().availableProcessors()
+            + ", positions: " + positions.size() + ", depth: " + depth);
+        
+        for (ParallelMode mode : ParallelMode.values()) {
+            System.out.println();
+            System.out.println(mode);
+            System.out.println(String.format("%8s %10s %8s %12s %12s %9s %6s",
+                "threads", "time ms", "speedup", "nodes", "nodes/s", "balance", "same"));
+            
+            long baseNanos = 0;
+            List<Move> baseMoves = null;
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                AlphaBeta engine = new AlphaBeta(new ClassicalEvaluator());
+                engine.setThreadCount(threads);
+                engine.setParallelMode(mode);
+                for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                    run(engine, positions, depth, new long[threads]);
+                }
+                
+                long[] threadNodes = new long[threads];
+                long start = System.nanoTime();
+                List<Move> moves = run(engine, positions, depth, threadNodes);
+                long nanos = System.nanoTime() - start;
+                
+                if (threads == 1) {
+                    baseNanos = nanos;
+                    baseMoves = moves;
+                }
+                long nodes = 0;
+                long busiest = 0;
+                for (long n : threadNodes) {
+                    nodes += n;
+                    busiest = Math.max(busiest, n);
+                }
+                // Share of the work done by the busiest thread, relative to a perfect split
+                double balance = busiest == 0 ? 1.0 : (double) nodes / (busiest * (double) threads);
+                
+                System.out.println(String.format("%8d %10.1f %8.2f %12d %12.0f %9.2f %6s",
+                    threads,
+                    nanos / 1e6,
+                    (double) baseNanos / nanos,
+                    nodes,
+                    nodes / (nanos / 1e9),
+                    balance,
+                    sameMoves(baseMoves, moves) ? "yes" : "no"));
+            }
+        }
+        
+        System.exit(0);
+    }
+    
+    private static List<Move> run(AlphaBeta engine, List<Board> positions, int depth, long[] threadNodes) {
+        List<Move> moves = new ArrayList<>();
+        for (Board position : positions) {
+            engine.newGame();
+            Player toMove = position.getMoveCount() % 2 == 0 ? Player.X : Player.O;
+            SearchResult result = engine.search(new Board(position), toMove, Difficulty.HARD, depth);
+            moves.add(result.getBestMove());
+            long[] nodes = result.getThreadNodes();
+            for (int i = 0; i < nodes.length; i++) {
+                threadNodes[i] += nodes[i];
+            }
+        }
+        return moves;
+    }
+    
+    private static boolean sameMoves(List<Move> expected, List<Move> actual) {
+        for (int i = 0; i < expected.size(); i++) {
+            Move a = expected.get(i);
+            Move b = actual.get(i);
+            if (a.getRow() != b.getRow() || a.getCol() != b.getCol() || a.getScore() != b.getScore()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Opening positions on the larger boards, where the search is deep enough to split.
+     */
+    private static List<Board> positions() {
+        List<Board> positions = new ArrayList<>();
+        
+        Board medium = new Board(7, 7, 4);
+        medium.makeMove(3, 3, Player.X);
+        positions.add(new Board(medium));
+        medium.makeMove(2, 3, Player.O);
+        positions.add(new Board(medium));
+        medium.makeMove(2, 2, Player.X);
+        positions.add(new Board(medium));
+        
+        Board gomoku = new Board(15, 15, 5);
+        gomoku.makeMove(7, 7, Player.X);
+        gomoku.makeMove(6, 8, Player.O);
+        positions.add(gomoku);
+        
+        return positions;
+    }
+}
@@ -0,0 +1,56 @@
+package edu.najah.ai.tictactoe.ai;
+
+/**
+ * Mutable state of one search thread: its counters, its killer moves, its
+ * move buffers and the control shared with the other threads of the same search.
+ */
+final class SearchContext {
+    
+    final SearchControl control;
+    final MoveOrderer orderer;
+    
+    // Only reuse table entries searched to exactly the requested depth, which keeps
+    // parallel results independent of thread timing
+    final boolean exactDepthOnly;
+    
+    // moves[ply] holds the moves generated at that distance from the root; a search
+    // never goes deeper than its depth limit or the number of cells
+    final int[][] moves;
+    
+    // Scores of the leaves below the node being evaluated in a batch
+    final int[] leafScores;
+    
+    int nodes;
+    int prunes;
+    int tableHits;
+    int tableMisses;
+    
+    SearchContext(SearchControl control, MoveOrderer orderer, boolean exactDepthOnly, int cellCount, int maxDepth) {
+        this.control = control;
+        this.orderer = orderer;
+        this.exactDepthOnly = exactDepthOnly;
+        this.moves = new int[Math.min(maxDepth, cellCount) + 1][cellCount];
+        this.leafScores = new int[cellCount];
+    }
+    
+    /**
+     * Counts a node and returns true if the search must unwind.
+     */
+    boolean visitNode() {
+        if (++nodes % SearchControl.CHECK_INTERVAL == 0) {
+            control.reportNodes(SearchControl.CHECK_INTERVAL);
+        }
+        return control.isAborted();
+    }
+    
+    boolean isAborted() {
+        return control.isAborted();
+    }
+    
+    void add(SearchContext other) {
+        nodes += other.nodes;
+        prunes += other.prunes;
+        tableHits += other.tableHits;
+        tableMisses += other.tableMisses;
+    }
+}
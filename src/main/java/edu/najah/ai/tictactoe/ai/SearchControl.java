@@ -0,0 +1,119 @@
+package edu.najah.ai.tictactoe.ai;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Settings, budget, statistics and stop flag shared by every thread working on
+ * one search. A new control is created for each call, so concurrent searches on
+ * the same engine never see each other's state.
+ */
+final class SearchControl {
+    
+    // Threads report nodes to the shared counter in batches of this size
+    static final int CHECK_INTERVAL = 256;
+    
+    final Evaluator evaluator;
+    final BatchEvaluator batchEvaluator; // the evaluator if it scores siblings in batches, else null
+    final int threadCount;
+    final ParallelMode parallelMode;
+    final boolean moveOrdering;
+    
+    // Written by the thread that started the search
+    final long[] threadNodes;
+    int completedDepth;
+    double coresBusy = 1.0;
+    
+    private final SearchControl parent;
+    private final long deadlineNanos;
+    private final long nodeBudget;
+    private final AtomicLong nodes = new AtomicLong();
+    private volatile boolean active;
+    private volatile boolean aborted;
+    
+    /**
+     * @param evaluator evaluation function for this search
+     * @param timeBudgetMillis wall-clock budget, 0 for unlimited
+     * @param nodeBudget node budget, 0 for unlimited
+     * @param threadCount number of search threads
+     * @param parallelMode how the threads share the work
+     * @param batchLeaves score sibling leaves together if the evaluator supports it
+     * @param moveOrdering order moves by hash move, threats, killers and history
+     */
+    SearchControl(Evaluator evaluator, long timeBudgetMillis, long nodeBudget, int threadCount, ParallelMode parallelMode,
+        boolean batchLeaves, boolean moveOrdering) {
+        this.evaluator = evaluator;
+        this.batchEvaluator = batchLeaves && evaluator instanceof BatchEvaluator ? (BatchEvaluator) evaluator : null;
+        this.deadlineNanos = timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1_000_000 : Long.MAX_VALUE;
+        this.nodeBudget = nodeBudget;
+        this.threadCount = threadCount;
+        this.parallelMode = parallelMode;
+        this.moveOrdering = moveOrdering;
+        this.threadNodes = new long[threadCount];
+        this.parent = null;
+    }
+    
+    private SearchControl(SearchControl parent) {
+        this.evaluator = parent.evaluator;
+        this.batchEvaluator = parent.batchEvaluator;
+        this.deadlineNanos = Long.MAX_VALUE;
+        this.nodeBudget = 0;
+        this.threadCount = parent.threadCount;
+        this.parallelMode = parent.parallelMode;
+        this.moveOrdering = parent.moveOrdering;
+        this.threadNodes = parent.threadNodes;
+        this.parent = parent;
+    }
+    
+    /**
+     * A control for helper threads: nodes count against this control's budget and
+     * an abort here stops the helpers, but aborting the helpers leaves this search running.
+     */
+    SearchControl helper() {
+        return new SearchControl(this);
+    }
+    
+    /**
+     * Starts enforcing the budget. Until then only {@link #abort()} stops the search,
+     * so the first iteration of iterative deepening always completes.
+     */
+    void activate() {
+        active = true;
+    }
+    
+    /**
+     * Adds a batch of nodes and stops the search if the budget is spent.
+     */
+    void reportNodes(int count) {
+        if (parent != null) {
+            parent.reportNodes(count);
+            return;
+        }
+        long total = nodes.addAndGet(count);
+        if (active && ((nodeBudget > 0 && total >= nodeBudget) || System.nanoTime() >= deadlineNanos)) {
+            aborted = true;
+        }
+    }
+    
+    /**
+     * Adds the nodes of a finished task to the counter of the thread that ran it.
+     * The pool has one thread per slot; a spare thread it starts while another
+     * blocks in a join is counted with the slot its index wraps to.
+     */
+    void recordThreadNodes(int thread, long count) {
+        synchronized (threadNodes) {
+            threadNodes[thread % threadNodes.length] += count;
+        }
+    }
+    
+    boolean isOutOfBudget() {
+        return (nodeBudget > 0 && nodes.get() >= nodeBudget) || System.nanoTime() >= deadlineNanos;
+    }
+    
+    void abort() {
+        aborted = true;
+    }
+    
+    boolean isAborted() {
+        return aborted || (parent != null && parent.isAborted());
+    }
+}
@@ -0,0 +1,37 @@
+package edu.najah.ai.tictactoe.ai;
+
+/**
+ * Lets another thread stop a search started with
+ * {@link AlphaBeta#search(edu.najah.ai.tictactoe.game.Board, edu.najah.ai.tictactoe.game.Player, Difficulty, int, SearchHandle)}.
+ * Cancelling is cooperative: the search threads notice it at their next node
+ * check and unwind. A handle may be cancelled before the search starts.
+ */
+public final class SearchHandle {
+    
+    private volatile SearchControl control;
+    private volatile boolean cancelled;
+    
+    /**
+     * Stops the search. Its result should be ignored: the best move is null, or
+     * comes from an unfinished iterative deepening run.
+     */
+    public void cancel() {
+        cancelled = true;
+        SearchControl current = control;
+        if (current != null) {
+            current.abort();
+        }
+    }
+    
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    void attach(SearchControl control) {
+        this.control = control;
+        // Re-check after publishing the control so a concurrent cancel() is never lost
+        if (cancelled) {
+            control.abort();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package edu.najah.ai.tictactoe.ai;
+
+public enum SearchMode {
+    ALPHA_BETA,             // Depth-limited Alpha-Beta search
+    ITERATIVE_DEEPENING,    // Deepens one ply at a time until the time/node budget runs out
+    SOLVED_TABLE            // Perfect play looked up from the solved 3x3 table (falls back to search elsewhere)
+}
@@ -0,0 +1,100 @@
+package edu.najah.ai.tictactoe.ai;
+
+import edu.najah.ai.tictactoe.game.Move;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of one {@link AlphaBeta#search} call: the chosen move, the score of
+ * every legal move and the statistics of the search. Immutable, so it can be
+ * handed to another thread (e.g. the UI) without copying.
+ */
+public final class SearchResult {
+    
+    private final Move bestMove;
+    private final List<Move> moveScores;
+    private final int nodesEvaluated;
+    private final int pruneCount;
+    private final int tableHits;
+    private final int tableMisses;
+    private final int completedDepth;
+    private final long elapsedMillis;
+    private final long[] threadNodes;
+    private final double coresBusy;
+    
+    SearchResult(Move bestMove, List<Move> moveScores, SearchContext context, long elapsedMillis) {
+        this.bestMove = bestMove;
+        this.moveScores = Collections.unmodifiableList(moveScores);
+        this.nodesEvaluated = context.nodes;
+        this.pruneCount = context.prunes;
+        this.tableHits = context.tableHits;
+        this.tableMisses = context.tableMisses;
+        this.completedDepth = context.control.completedDepth;
+        this.elapsedMillis = elapsedMillis;
+        this.threadNodes = context.control.threadNodes.clone();
+        this.coresBusy = context.control.coresBusy;
+    }
+    
+    /**
+     * The move to play, or null if the board has no empty cell.
+     */
+    public Move getBestMove() {
+        return bestMove;
+    }
+    
+    /**
+     * Every legal move with its score, in row-major order.
+     */
+    public List<Move> getMoveScores() {
+        return moveScores;
+    }
+    
+    public int getNodesEvaluated() {
+        return nodesEvaluated;
+    }
+    
+    public int getPruneCount() {
+        return pruneCount;
+    }
+    
+    public int getTableHits() {
+        return tableHits;
+    }
+    
+    public int getTableMisses() {
+        return tableMisses;
+    }
+    
+    /**
+     * Depth of the search; for iterative deepening, the deepest finished iteration.
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public int getThreadCount() {
+        return threadNodes.length;
+    }
+    
+    /**
+     * Nodes searched by each thread, indexed by thread.
+     */
+    public long[] getThreadNodes() {
+        return threadNodes.clone();
+    }
+    
+    /**
+     * CPU time spent by the search threads divided by the wall-clock time of the
+     * parallel root search; 1.0 for sequential searches. This measures how many
+     * cores were kept busy, not how much faster the search finished: see
+     * {@link ScalingReport} for the speedup over one thread.
+     */
+    public double getCoresBusy() {
+        return coresBusy;
+    }
+}
@@ -0,0 +1,126 @@
+package edu.najah.ai.tictactoe.ai;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size transposition table for the Alpha-Beta search.
+ * 
+ * Each bucket has two slots: a depth-preferred slot that only yields to deeper
+ * searches (or to entries from an older search), and an always-replace slot
+ * for everything else. An entry is packed into a single long and stored next
+ * to {@code key ^ data}, so a torn read simply fails the key check.
+ */
+public class TranspositionTable {
+    
+    public static final int EXACT = 0;
+    public static final int LOWER_BOUND = 1;
+    public static final int UPPER_BOUND = 2;
+    
+    public static final int NO_MOVE = -1;
+    
+    private static final int DEFAULT_BUCKETS = 1 << 17;
+    
+    // Packed entry layout: score (32) | depth (8) | flag (2) | move + 1 (16) | generation (6)
+    private static final int DEPTH_SHIFT = 32;
+    private static final int FLAG_SHIFT = 40;
+    private static final int MOVE_SHIFT = 42;
+    private static final int GENERATION_SHIFT = 58;
+    
+    private final long[] keys;
+    private final long[] entries;
+    private final int bucketMask;
+    private int generation;
+    
+    public TranspositionTable() {
+        this(DEFAULT_BUCKETS);
+    }
+    
+    /**
+     * @param buckets number of two-slot buckets, rounded up to a power of two
+     */
+    public TranspositionTable(int buckets) {
+        int size = Integer.highestOneBit(Math.max(1, buckets - 1)) << 1;
+        keys = new long[2 * size];
+        entries = new long[2 * size];
+        bucketMask = size - 1;
+    }
+    
+    /**
+     * Marks the start of a new search so entries from earlier searches can be replaced.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0x3F;
+    }
+    
+    /**
+     * Looks up a position.
+     * 
+     * @return the packed entry, or 0 if the position is not in the table
+     */
+    public long probe(long key) {
+        int slot = ((int) key & bucketMask) << 1;
+        for (int i = slot; i < slot + 2; i++) {
+            long data = entries[i];
+            if (data != 0 && (keys[i] ^ data) == key) {
+                return data;
+            }
+        }
+        return 0L;
+    }
+    
+    /**
+     * Stores a search result.
+     * 
+     * @param key position key
+     * @param score score of the position
+     * @param depth remaining depth the score was searched to
+     * @param flag {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}
+     * @param move best move as a cell index, or {@link #NO_MOVE}
+     */
+    public void store(long key, int score, int depth, int flag, int move) {
+        long data = (score & 0xFFFFFFFFL)
+            | ((long) (depth & 0xFF) << DEPTH_SHIFT)
+            | ((long) flag << FLAG_SHIFT)
+            | ((long) ((move + 1) & 0xFFFF) << MOVE_SHIFT)
+            | ((long) generation << GENERATION_SHIFT);
+        
+        int slot = ((int) key & bucketMask) << 1;
+        long existing = entries[slot];
+        boolean sameKey = existing != 0 && (keys[slot] ^ existing) == key;
+        if (existing == 0 || sameKey || depth >= depthOf(existing) || generationOf(existing) != generation) {
+            write(slot, key, data);
+        } else {
+            write(slot + 1, key, data);
+        }
+    }
+    
+    private void write(int slot, long key, long data) {
+        entries[slot] = data;
+        keys[slot] = key ^ data;
+    }
+    
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(entries, 0L);
+    }
+    
+    public static int scoreOf(long entry) {
+        return (int) entry;
+    }
+    
+    public static int depthOf(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & 0xFF;
+    }
+    
+    public static int flagOf(long entry) {
+        return (int) (entry >>> FLAG_SHIFT) & 0x3;
+    }
+    
+    public static int moveOf(long entry) {
+        return ((int) (entry >>> MOVE_SHIFT) & 0xFFFF) - 1;
+    }
+    
+    private static int generationOf(long entry) {
+        return (int) (entry >>> GENERATION_SHIFT) & 0x3F;
+    }
+}
@@ -1,115 +1,446 @@
 package edu.najah.ai.tictactoe.game;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * m,n,k board (rows x cols, k in a row wins) stored as one bitboard per side.
+ * Cell (row, col) maps to bit {@code row * cols + col}. The winner is detected
+ * incrementally in {@link #makeMove} by scanning only the lines through the last move,
+ * and a Zobrist hash of the position is kept up to date on every make/undo, together
+ * with the hash of each symmetric image of the position (see {@link BoardSymmetry}).
+ * Per-line mark counts are maintained the same way, so evaluators can read how many
+ * lines each side still has open without scanning them (see {@link #getOpenLineCount}).
+ */
 public class Board {
-    private Player[][] grid;
-    private static final int SIZE = 3;
+    private static final int DEFAULT_SIZE = 3;
+    
+    private final BoardGeometry geometry;
+    private final BoardSymmetry symmetry;
+    private final long[] xBits;
+    private final long[] oBits;
+    
+    // Cells in the order they were played, used to undo the winner in LIFO order
+    private final int[] history;
+    private int moveCount;
+    private final long[] hashes; // hashes[t] = hash of the image under symmetry t
+    
+    // Marks of each side on every line, and openLines[side][n] = lines holding
+    // exactly n >= 1 marks of that side and none of the other (side 0 = X, 1 = O);
+    // empty lines are not counted, so openLines[side][0] stays 0
+    private final byte[] xLineCounts;
+    private final byte[] oLineCounts;
+    private final int[][] openLines;
+    
+    private Player winner;
+    private int winningLine;
+    private int winPly; // moveCount right after the winning move
     
     public Board() {
-        grid = new Player[SIZE][SIZE];
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                grid[i][j] = Player.EMPTY;
-            }
-        }
+        this(DEFAULT_SIZE, DEFAULT_SIZE, DEFAULT_SIZE);
+    }
+    
+    public Board(int rows, int cols, int winLength) {
+        this(BoardGeometry.of(rows, cols, winLength));
+    }
+    
+    public Board(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.symmetry = BoardSymmetry.of(geometry);
+        int words = (geometry.getCellCount() + Long.SIZE - 1) / Long.SIZE;
+        xBits = new long[words];
+        oBits = new long[words];
+        history = new int[geometry.getCellCount()];
+        hashes = new long[symmetry.size()];
+        xLineCounts = new byte[geometry.getLineCount()];
+        oLineCounts = new byte[geometry.getLineCount()];
+        openLines = new int[2][geometry.getWinLength() + 1];
+        clearWinner();
     }
     
     public Board(Board other) {
-        grid = new Player[SIZE][SIZE];
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                grid[i][j] = other.grid[i][j];
-            }
-        }
+        geometry = other.geometry;
+        symmetry = other.symmetry;
+        xBits = other.xBits.clone();
+        oBits = other.oBits.clone();
+        history = other.history.clone();
+        moveCount = other.moveCount;
+        hashes = other.hashes.clone();
+        xLineCounts = other.xLineCounts.clone();
+        oLineCounts = other.oLineCounts.clone();
+        openLines = new int[][] {other.openLines[0].clone(), other.openLines[1].clone()};
+        winner = other.winner;
+        winningLine = other.winningLine;
+        winPly = other.winPly;
     }
     
     public boolean isValidMove(int row, int col) {
-        return row >= 0 && row < SIZE && col >= 0 && col < SIZE && grid[row][col] == Player.EMPTY;
+        return row >= 0 && row < geometry.getRows() && col >= 0 && col < geometry.getCols()
+            && !isOccupied(geometry.cellIndex(row, col));
     }
     
     public void makeMove(int row, int col, Player player) {
-        if (isValidMove(row, col)) {
-            grid[row][col] = player;
+        if (!isValidMove(row, col)) {
+            return;
+        }
+        makeMove(geometry.cellIndex(row, col), player);
+    }
+    
+    /**
+     * Plays {@code cell} (index {@code row * cols + col}); ignored if the cell is taken.
+     */
+    public void makeMove(int cell, Player player) {
+        if (player == Player.EMPTY || isOccupied(cell)) {
+            return;
+        }
+        long[] bits = player == Player.X ? xBits : oBits;
+        bits[cell >>> 6] |= 1L << cell;
+        history[moveCount++] = cell;
+        updateHashes(cell, player);
+        updateLineCounts(cell, player, 1);
+        
+        if (winner == Player.EMPTY) {
+            int line = findLineThrough(cell, bits);
+            if (line >= 0) {
+                winner = player;
+                winningLine = line;
+                winPly = moveCount;
+            }
         }
     }
     
     public void undoMove(int row, int col) {
-        grid[row][col] = Player.EMPTY;
+        undoMove(geometry.cellIndex(row, col));
     }
     
-    public Player getCell(int row, int col) {
-        return grid[row][col];
+    /**
+     * Clears {@code cell}. Undoing the last move is cheapest; other cells are
+     * removed from the history and the winner is recomputed.
+     */
+    public void undoMove(int cell) {
+        Player player = getCell(cell);
+        if (player == Player.EMPTY) {
+            return;
+        }
+        updateHashes(cell, player);
+        updateLineCounts(cell, player, -1);
+        long clear = ~(1L << cell);
+        xBits[cell >>> 6] &= clear;
+        oBits[cell >>> 6] &= clear;
+        
+        if (history[moveCount - 1] == cell) {
+            moveCount--;
+            if (moveCount < winPly) {
+                clearWinner();
+            }
+        } else {
+            // Out-of-order undo: drop the cell from the history and rescan
+            int i = 0;
+            while (history[i] != cell) {
+                i++;
+            }
+            System.arraycopy(history, i + 1, history, i, moveCount - i - 1);
+            moveCount--;
+            recomputeWinner();
+        }
     }
     
-    public List<Move> getAvailableMoves() {
-        List<Move> moves = new ArrayList<>();
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                if (grid[i][j] == Player.EMPTY) {
-                    moves.add(new Move(i, j));
+    private void updateHashes(int cell, Player player) {
+        for (int t = 0; t < hashes.length; t++) {
+            hashes[t] ^= geometry.zobristKey(symmetry.apply(t, cell), player);
+        }
+    }
+    
+    /**
+     * Adds {@code delta} marks of {@code player} to every line through {@code cell}
+     * and moves those lines between the open-line buckets.
+     */
+    private void updateLineCounts(int cell, Player player, int delta) {
+        for (int line : geometry.getLinesThroughCell(cell)) {
+            int x = xLineCounts[line];
+            int o = oLineCounts[line];
+            countOpenLine(x, o, -1);
+            if (player == Player.X) {
+                x += delta;
+                xLineCounts[line] = (byte) x;
+            } else {
+                o += delta;
+                oLineCounts[line] = (byte) o;
+            }
+            countOpenLine(x, o, 1);
+        }
+    }
+    
+    private void countOpenLine(int x, int o, int delta) {
+        if (x == 0 && o == 0) {
+            return; // Empty lines belong to neither side
+        }
+        if (o == 0) {
+            openLines[0][x] += delta;
+        } else if (x == 0) {
+            openLines[1][o] += delta;
+        }
+    }
+    
+    private boolean isOccupied(int cell) {
+        return ((xBits[cell >>> 6] | oBits[cell >>> 6]) & (1L << cell)) != 0;
+    }
+    
+    /**
+     * Returns the index of a completed line through {@code cell} for the given bitboard, or -1.
+     */
+    private int findLineThrough(int cell, long[] bits) {
+        int[] lines = geometry.getLinesThroughCell(cell);
+        if (geometry.hasLineMasks()) {
+            long word = bits[0];
+            for (int line : lines) {
+                long mask = geometry.getLineMask(line);
+                if ((word & mask) == mask) {
+                    return line;
                 }
             }
+            return -1;
         }
-        return moves;
+        for (int line : lines) {
+            if (isLineComplete(geometry.getLine(line), bits)) {
+                return line;
+            }
+        }
+        return -1;
     }
     
-    public Player checkWinner() {
-        // Check rows
-        for (int i = 0; i < SIZE; i++) {
-            if (grid[i][0] != Player.EMPTY && 
-                grid[i][0] == grid[i][1] && grid[i][1] == grid[i][2]) {
-                return grid[i][0];
+    /**
+     * True if {@code player} playing the empty cell would complete a line.
+     */
+    public boolean isWinningMove(int cell, Player player) {
+        long[] bits = player == Player.X ? xBits : oBits;
+        int[] lines = geometry.getLinesThroughCell(cell);
+        if (geometry.hasLineMasks()) {
+            long word = bits[0] | (1L << cell);
+            for (int line : lines) {
+                long mask = geometry.getLineMask(line);
+                if ((word & mask) == mask) {
+                    return true;
+                }
             }
+            return false;
         }
-        
-        // Check columns
-        for (int j = 0; j < SIZE; j++) {
-            if (grid[0][j] != Player.EMPTY && 
-                grid[0][j] == grid[1][j] && grid[1][j] == grid[2][j]) {
-                return grid[0][j];
+        for (int line : lines) {
+            boolean complete = true;
+            for (int c : geometry.getLine(line)) {
+                if (c != cell && (bits[c >>> 6] & (1L << c)) == 0) {
+                    complete = false;
+                    break;
+                }
+            }
+            if (complete) {
+                return true;
             }
         }
-        
-        // Check diagonals
-        if (grid[0][0] != Player.EMPTY && 
-            grid[0][0] == grid[1][1] && grid[1][1] == grid[2][2]) {
-            return grid[0][0];
+        return false;
+    }
+    
+    private static boolean isLineComplete(int[] cells, long[] bits) {
+        for (int c : cells) {
+            if ((bits[c >>> 6] & (1L << c)) == 0) {
+                return false;
+            }
         }
-        
-        if (grid[0][2] != Player.EMPTY && 
-            grid[0][2] == grid[1][1] && grid[1][1] == grid[2][0]) {
-            return grid[0][2];
+        return true;
+    }
+    
+    private void clearWinner() {
+        winner = Player.EMPTY;
+        winningLine = -1;
+        winPly = Integer.MAX_VALUE;
+    }
+    
+    private void recomputeWinner() {
+        clearWinner();
+        for (int line = 0; line < geometry.getLineCount(); line++) {
+            int[] cells = geometry.getLine(line);
+            if (isLineComplete(cells, xBits)) {
+                winner = Player.X;
+            } else if (isLineComplete(cells, oBits)) {
+                winner = Player.O;
+            } else {
+                continue;
+            }
+            winningLine = line;
+            // The win stands until one of its cells is undone
+            winPly = 0;
+            for (int i = 0; i < moveCount; i++) {
+                for (int c : cells) {
+                    if (history[i] == c) {
+                        winPly = i + 1;
+                    }
+                }
+            }
+            return;
+        }
+    }
+    
+    public Player getCell(int row, int col) {
+        return getCell(geometry.cellIndex(row, col));
+    }
+    
+    public Player getCell(int cell) {
+        long bit = 1L << cell;
+        if ((xBits[cell >>> 6] & bit) != 0) {
+            return Player.X;
+        }
+        if ((oBits[cell >>> 6] & bit) != 0) {
+            return Player.O;
         }
-        
         return Player.EMPTY;
     }
     
-    public boolean isFull() {
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                if (grid[i][j] == Player.EMPTY) {
-                    return false;
-                }
+    public List<Move> getAvailableMoves() {
+        int[] cells = new int[geometry.getCellCount() - moveCount];
+        int count = getAvailableMoves(cells);
+        List<Move> moves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            moves.add(new Move(geometry.rowOf(cells[i]), geometry.colOf(cells[i])));
+        }
+        return moves;
+    }
+    
+    /**
+     * Writes the empty cells, in row-major order, into {@code cells} without allocating.
+     * 
+     * @param cells buffer with room for every empty cell
+     * @return number of cells written
+     */
+    public int getAvailableMoves(int[] cells) {
+        int cellCount = geometry.getCellCount();
+        int count = 0;
+        for (int w = 0; w < xBits.length; w++) {
+            long empty = ~(xBits[w] | oBits[w]);
+            int remaining = cellCount - w * Long.SIZE;
+            if (remaining < Long.SIZE) {
+                empty &= (1L << remaining) - 1;
+            }
+            while (empty != 0) {
+                cells[count++] = w * Long.SIZE + Long.numberOfTrailingZeros(empty);
+                empty &= empty - 1;
             }
         }
-        return true;
+        return count;
+    }
+    
+    public Player checkWinner() {
+        return winner;
+    }
+    
+    /**
+     * Returns the cells of the completed line, or an empty list if nobody has won.
+     */
+    public List<Move> getWinningLine() {
+        List<Move> cells = new ArrayList<>();
+        if (winningLine >= 0) {
+            for (int cell : geometry.getLine(winningLine)) {
+                cells.add(new Move(geometry.rowOf(cell), geometry.colOf(cell)));
+            }
+        }
+        return cells;
+    }
+    
+    /**
+     * Number of lines holding exactly {@code marks} marks of {@code player} and none of
+     * the opponent's, i.e. lines that player can still complete. O(1). Empty lines
+     * are not counted, so {@code marks} should be between 1 and the win length;
+     * for 0 the result is always 0.
+     */
+    public int getOpenLineCount(Player player, int marks) {
+        return openLines[player == Player.X ? 0 : 1][marks];
+    }
+    
+    public boolean isFull() {
+        return moveCount == geometry.getCellCount();
     }
     
     public boolean isTerminal() {
-        return checkWinner() != Player.EMPTY || isFull();
+        return winner != Player.EMPTY || isFull();
+    }
+    
+    /**
+     * Zobrist hash of the marks on the board (independent of the move order).
+     */
+    public long getHash() {
+        return hashes[0];
+    }
+    
+    /**
+     * Hash of the position after applying symmetry transform {@code t}.
+     */
+    public long getSymmetricHash(int t) {
+        return hashes[t];
+    }
+    
+    /**
+     * Hash shared by every rotation and reflection of this position.
+     */
+    public long getCanonicalHash() {
+        long min = hashes[0];
+        for (int t = 1; t < hashes.length; t++) {
+            min = Math.min(min, hashes[t]);
+        }
+        return min;
+    }
+    
+    public int getMoveCount() {
+        return moveCount;
+    }
+    
+    /**
+     * Number of marks {@code player} has on the board.
+     */
+    public int getMarkCount(Player player) {
+        long[] bits = player == Player.X ? xBits : oBits;
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
     }
     
+    /**
+     * Returns the number of rows; kept for callers written for square boards.
+     */
     public int getSize() {
-        return SIZE;
+        return geometry.getRows();
+    }
+    
+    public int getRows() {
+        return geometry.getRows();
+    }
+    
+    public int getCols() {
+        return geometry.getCols();
+    }
+    
+    public int getWinLength() {
+        return geometry.getWinLength();
+    }
+    
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+    
+    public BoardSymmetry getSymmetry() {
+        return symmetry;
     }
     
     public void reset() {
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                grid[i][j] = Player.EMPTY;
-            }
-        }
+        Arrays.fill(xBits, 0L);
+        Arrays.fill(oBits, 0L);
+        moveCount = 0;
+        Arrays.fill(hashes, 0L);
+        Arrays.fill(xLineCounts, (byte) 0);
+        Arrays.fill(oLineCounts, (byte) 0);
+        Arrays.fill(openLines[0], 0);
+        Arrays.fill(openLines[1], 0);
+        clearWinner();
     }
 }
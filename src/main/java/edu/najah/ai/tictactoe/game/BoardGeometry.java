@@ -0,0 +1,194 @@
+package edu.najah.ai.tictactoe.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable layout of an m,n,k board: its dimensions, the win length and every
+ * winning line (a run of k consecutive cells in a row, column or diagonal).
+ * Cell (row, col) has index {@code row * cols + col}.
+ * Instances are shared between all boards of the same shape.
+ */
+public final class BoardGeometry {
+    
+    private static final Map<Long, BoardGeometry> CACHE = new ConcurrentHashMap<>();
+    
+    private final int rows;
+    private final int cols;
+    private final int winLength;
+    private final int cells;
+    private final int[][] lines;
+    private final int[][] linesThroughCell;
+    private final long[] lineMasks; // only for boards of at most 64 cells
+    private final long[] zobristKeys; // two random keys per cell: X then O
+    
+    private BoardGeometry(int rows, int cols, int winLength) {
+        this.rows = rows;
+        this.cols = cols;
+        this.winLength = winLength;
+        this.cells = rows * cols;
+        this.lines = buildLines();
+        this.linesThroughCell = buildLinesThroughCell();
+        this.lineMasks = cells <= Long.SIZE ? buildLineMasks() : null;
+        this.zobristKeys = buildZobristKeys();
+    }
+    
+    /**
+     * Returns the shared geometry for a board of the given shape.
+     */
+    public static BoardGeometry of(int rows, int cols, int winLength) {
+        if (rows < 1 || cols < 1 || winLength < 1 || winLength > Math.max(rows, cols)) {
+            throw new IllegalArgumentException("Invalid board shape: " + rows + "x" + cols + ", k=" + winLength);
+        }
+        long key = ((long) rows << 40) | ((long) cols << 20) | winLength;
+        return CACHE.computeIfAbsent(key, k -> new BoardGeometry(rows, cols, winLength));
+    }
+    
+    private int[][] buildLines() {
+        // Directions: right, down, down-right, down-left
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+        List<int[]> result = new ArrayList<>();
+        for (int[] dir : directions) {
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    int endRow = r + dir[0] * (winLength - 1);
+                    int endCol = c + dir[1] * (winLength - 1);
+                    if (endRow < 0 || endRow >= rows || endCol < 0 || endCol >= cols) {
+                        continue;
+                    }
+                    int[] line = new int[winLength];
+                    for (int i = 0; i < winLength; i++) {
+                        line[i] = (r + dir[0] * i) * cols + (c + dir[1] * i);
+                    }
+                    result.add(line);
+                }
+            }
+        }
+        return result.toArray(new int[0][]);
+    }
+    
+    private int[][] buildLinesThroughCell() {
+        int[] counts = new int[cells];
+        for (int[] line : lines) {
+            for (int cell : line) {
+                counts[cell]++;
+            }
+        }
+        int[][] result = new int[cells][];
+        for (int cell = 0; cell < cells; cell++) {
+            result[cell] = new int[counts[cell]];
+            counts[cell] = 0;
+        }
+        for (int l = 0; l < lines.length; l++) {
+            for (int cell : lines[l]) {
+                result[cell][counts[cell]++] = l;
+            }
+        }
+        return result;
+    }
+    
+    private long[] buildLineMasks() {
+        long[] masks = new long[lines.length];
+        for (int l = 0; l < lines.length; l++) {
+            for (int cell : lines[l]) {
+                masks[l] |= 1L << cell;
+            }
+        }
+        return masks;
+    }
+    
+    private long[] buildZobristKeys() {
+        // Seeded by shape so hashes are reproducible between runs
+        Random random = new Random(31L * (31L * rows + cols) + winLength);
+        long[] keys = new long[2 * cells];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+        return keys;
+    }
+    
+    public int getRows() {
+        return rows;
+    }
+    
+    public int getCols() {
+        return cols;
+    }
+    
+    public int getWinLength() {
+        return winLength;
+    }
+    
+    public int getCellCount() {
+        return cells;
+    }
+    
+    public int getLineCount() {
+        return lines.length;
+    }
+    
+    /**
+     * Cell indices of the given line. The returned array must not be modified.
+     */
+    public int[] getLine(int line) {
+        return lines[line];
+    }
+    
+    /**
+     * Indices of the lines passing through the given cell. The returned array must not be modified.
+     */
+    public int[] getLinesThroughCell(int cell) {
+        return linesThroughCell[cell];
+    }
+    
+    /**
+     * Bit mask of the given line, or 0 when the board has more than 64 cells.
+     */
+    public long getLineMask(int line) {
+        return lineMasks != null ? lineMasks[line] : 0L;
+    }
+    
+    public boolean hasLineMasks() {
+        return lineMasks != null;
+    }
+    
+    /**
+     * Zobrist key for a mark of {@code player} (X or O) on the given cell.
+     */
+    public long zobristKey(int cell, Player player) {
+        return zobristKeys[2 * cell + (player == Player.X ? 0 : 1)];
+    }
+    
+    public int cellIndex(int row, int col) {
+        return row * cols + col;
+    }
+    
+    public int rowOf(int cell) {
+        return cell / cols;
+    }
+    
+    public int colOf(int cell) {
+        return cell % cols;
+    }
+    
+    /**
+     * Index of the center cell (for even dimensions, the cell just below and right of the middle).
+     */
+    public int centerCell() {
+        return cellIndex(rows / 2, cols / 2);
+    }
+    
+    public boolean isCorner(int cell) {
+        int row = rowOf(cell);
+        int col = colOf(cell);
+        return (row == 0 || row == rows - 1) && (col == 0 || col == cols - 1);
+    }
+    
+    @Override
+    public String toString() {
+        return rows + "x" + cols + " (k=" + winLength + ")";
+    }
+}
@@ -0,0 +1,208 @@
+package edu.najah.ai.tictactoe.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Symmetries of a board shape: the rotations and reflections that map the
+ * board onto itself. A square board has 8 (the dihedral group), a rectangle 4.
+ * Only transforms that keep the center cell in place are used, so positional
+ * terms such as center and corner control are invariant under all of them.
+ * 
+ * Positions are canonicalized by picking the transform with the smallest
+ * Zobrist hash; {@link Board} keeps one hash per transform up to date.
+ */
+public final class BoardSymmetry {
+    
+    private static final Map<BoardGeometry, BoardSymmetry> CACHE = new ConcurrentHashMap<>();
+    
+    private final BoardGeometry geometry;
+    private final int[][] forward;  // forward[t][cell] = image of cell under transform t
+    private final int[][] inverse;
+    
+    private BoardSymmetry(BoardGeometry geometry) {
+        this.geometry = geometry;
+        List<int[]> maps = new ArrayList<>();
+        int rows = geometry.getRows();
+        int cols = geometry.getCols();
+        int center = geometry.centerCell();
+        int transforms = rows == cols ? 8 : 4;
+        for (int t = 0; t < transforms; t++) {
+            int[] map = new int[geometry.getCellCount()];
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    map[geometry.cellIndex(r, c)] = rows == cols
+                        ? squareImage(t, r, c, rows)
+                        : rectangleImage(t, r, c);
+                }
+            }
+            if (map[center] == center) {
+                maps.add(map);
+            }
+        }
+        forward = maps.toArray(new int[0][]);
+        inverse = new int[forward.length][geometry.getCellCount()];
+        for (int t = 0; t < forward.length; t++) {
+            for (int cell = 0; cell < forward[t].length; cell++) {
+                inverse[t][forward[t][cell]] = cell;
+            }
+        }
+    }
+    
+    public static BoardSymmetry of(BoardGeometry geometry) {
+        return CACHE.computeIfAbsent(geometry, BoardSymmetry::new);
+    }
+    
+    private int squareImage(int t, int r, int c, int n) {
+        int last = n - 1;
+        switch (t) {
+            case 0: return geometry.cellIndex(r, c);                 // identity
+            case 1: return geometry.cellIndex(c, last - r);          // rotate 90
+            case 2: return geometry.cellIndex(last - r, last - c);   // rotate 180
+            case 3: return geometry.cellIndex(last - c, r);          // rotate 270
+            case 4: return geometry.cellIndex(r, last - c);          // mirror left-right
+            case 5: return geometry.cellIndex(last - r, c);          // mirror top-bottom
+            case 6: return geometry.cellIndex(c, r);                 // main diagonal
+            default: return geometry.cellIndex(last - c, last - r);  // anti-diagonal
+        }
+    }
+    
+    private int rectangleImage(int t, int r, int c) {
+        int lastRow = geometry.getRows() - 1;
+        int lastCol = geometry.getCols() - 1;
+        switch (t) {
+            case 0: return geometry.cellIndex(r, c);
+            case 1: return geometry.cellIndex(lastRow - r, lastCol - c);
+            case 2: return geometry.cellIndex(r, lastCol - c);
+            default: return geometry.cellIndex(lastRow - r, c);
+        }
+    }
+    
+    /**
+     * Number of transforms; transform 0 is always the identity.
+     */
+    public int size() {
+        return forward.length;
+    }
+    
+    /**
+     * Image of {@code cell} under transform {@code t}.
+     */
+    public int apply(int t, int cell) {
+        return forward[t][cell];
+    }
+    
+    /**
+     * Cell that transform {@code t} maps onto {@code cell}.
+     */
+    public int invert(int t, int cell) {
+        return inverse[t][cell];
+    }
+    
+    /**
+     * Returns the transform that takes the board to its canonical form
+     * (the symmetric image with the smallest Zobrist hash).
+     */
+    public int canonicalTransform(Board board) {
+        int best = 0;
+        long bestHash = board.getSymmetricHash(0);
+        for (int t = 1; t < forward.length; t++) {
+            long h = board.getSymmetricHash(t);
+            if (h < bestHash) {
+                bestHash = h;
+                best = t;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Hash shared by all symmetric variants of the position.
+     */
+    public long canonicalHash(Board board) {
+        return board.getSymmetricHash(canonicalTransform(board));
+    }
+    
+    /**
+     * Returns a new board holding the canonical form of the given position.
+     */
+    public Board canonicalize(Board board) {
+        return transform(board, canonicalTransform(board));
+    }
+    
+    /**
+     * Returns a new board with every mark moved by transform {@code t}.
+     */
+    public Board transform(Board board, int t) {
+        Board result = new Board(geometry);
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            Player p = board.getCell(cell);
+            if (p != Player.EMPTY) {
+                int image = forward[t][cell];
+                result.makeMove(geometry.rowOf(image), geometry.colOf(image), p);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * True if transform {@code t} maps the position onto itself.
+     */
+    public boolean isInvariant(Board board, int t) {
+        if (board.getSymmetricHash(t) != board.getHash()) {
+            return false;
+        }
+        int[] map = forward[t];
+        for (int cell = 0; cell < map.length; cell++) {
+            if (board.getCell(cell) != board.getCell(map[cell])) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Returns the transforms that leave the position unchanged (always including the identity).
+     */
+    public int[] stabilizer(Board board) {
+        int[] result = new int[forward.length];
+        int count = 0;
+        for (int t = 0; t < forward.length; t++) {
+            if (t == 0 || isInvariant(board, t)) {
+                result[count++] = t;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+    
+    /**
+     * Smallest cell equivalent to {@code cell} under the given stabilizer.
+     * Moves with the same representative lead to symmetric positions.
+     */
+    public int representative(int[] stabilizer, int cell) {
+        int min = cell;
+        for (int t : stabilizer) {
+            min = Math.min(min, forward[t][cell]);
+        }
+        return min;
+    }
+    
+    /**
+     * Maps a move from the board's own orientation into the canonical frame.
+     */
+    public Move toCanonical(Move move, int t) {
+        int image = forward[t][geometry.cellIndex(move.getRow(), move.getCol())];
+        return new Move(geometry.rowOf(image), geometry.colOf(image), move.getScore());
+    }
+    
+    /**
+     * Maps a move found in the canonical frame back onto the original board.
+     */
+    public Move fromCanonical(Move move, int t) {
+        int cell = inverse[t][geometry.cellIndex(move.getRow(), move.getCol())];
+        return new Move(geometry.rowOf(cell), geometry.colOf(cell), move.getScore());
+    }
+}
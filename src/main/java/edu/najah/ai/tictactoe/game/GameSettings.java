@@ -1,6 +1,8 @@
 package edu.najah.ai.tictactoe.game;
 
 import edu.najah.ai.tictactoe.ai.Difficulty;
+import edu.najah.ai.tictactoe.ai.ParallelMode;
+import edu.najah.ai.tictactoe.ai.SearchMode;
 
 /**
  * Manages game settings selected by the user.
@@ -13,11 +15,68 @@ public class GameSettings {
     private Difficulty difficulty;
     private EvaluationType evaluationType;
     private boolean debugMode;
+    private BoardVariant boardVariant;
+    private SearchMode searchMode;
+    private long timeBudgetMillis;
+    private long nodeBudget;
+    private int searchThreads;
+    private ParallelMode parallelMode;
+    private boolean ponderEnabled;
+    private long ponderBudgetMillis;
     
     public enum EvaluationType {
         CLASSICAL, ML
     }
     
+    /**
+     * Supported board shapes. The depth limit caps the search on larger boards,
+     * where the branching factor makes the 3x3 depths impractical.
+     */
+    public enum BoardVariant {
+        CLASSIC(3, 3, 3, 9, "3x3 (3 in a row)"),
+        MEDIUM(7, 7, 4, 4, "7x7 (4 in a row)"),
+        GOMOKU(15, 15, 5, 2, "15x15 Gomoku (5 in a row)");
+        
+        private final int rows;
+        private final int cols;
+        private final int winLength;
+        private final int depthLimit;
+        private final String label;
+        
+        BoardVariant(int rows, int cols, int winLength, int depthLimit, String label) {
+            this.rows = rows;
+            this.cols = cols;
+            this.winLength = winLength;
+            this.depthLimit = depthLimit;
+            this.label = label;
+        }
+        
+        public int getRows() {
+            return rows;
+        }
+        
+        public int getCols() {
+            return cols;
+        }
+        
+        public int getWinLength() {
+            return winLength;
+        }
+        
+        public int getDepthLimit() {
+            return depthLimit;
+        }
+        
+        public Board createBoard() {
+            return new Board(rows, cols, winLength);
+        }
+        
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+    
     private GameSettings() {
         // Default settings
         this.humanPlayer = Player.X;
@@ -25,6 +84,14 @@ public class GameSettings {
         this.difficulty = Difficulty.NORMAL;
         this.evaluationType = EvaluationType.CLASSICAL;
         this.debugMode = false;
+        this.boardVariant = BoardVariant.CLASSIC;
+        this.searchMode = SearchMode.ALPHA_BETA;
+        this.timeBudgetMillis = 1000;
+        this.nodeBudget = 0; // unlimited
+        this.searchThreads = 1;
+        this.parallelMode = ParallelMode.ROOT_SPLIT;
+        this.ponderEnabled = false;
+        this.ponderBudgetMillis = 2000;
     }
     
     public static GameSettings getInstance() {
@@ -70,4 +137,86 @@ public class GameSettings {
     public void setDebugMode(boolean debugMode) {
         this.debugMode = debugMode;
     }
+    
+    public BoardVariant getBoardVariant() {
+        return boardVariant;
+    }
+    
+    public void setBoardVariant(BoardVariant boardVariant) {
+        this.boardVariant = boardVariant;
+    }
+    
+    public SearchMode getSearchMode() {
+        return searchMode;
+    }
+    
+    public void setSearchMode(SearchMode searchMode) {
+        this.searchMode = searchMode;
+    }
+    
+    /**
+     * Per-move wall-clock budget used by {@link SearchMode#ITERATIVE_DEEPENING}.
+     */
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+    
+    public void setTimeBudgetMillis(long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+    
+    /**
+     * Per-move node budget used by {@link SearchMode#ITERATIVE_DEEPENING} (0 = unlimited).
+     */
+    public long getNodeBudget() {
+        return nodeBudget;
+    }
+    
+    public void setNodeBudget(long nodeBudget) {
+        this.nodeBudget = nodeBudget;
+    }
+    
+    /**
+     * Number of threads the AI searches the root moves with (1 = sequential).
+     */
+    public int getSearchThreads() {
+        return searchThreads;
+    }
+    
+    public void setSearchThreads(int searchThreads) {
+        this.searchThreads = searchThreads;
+    }
+    
+    /**
+     * How the search threads share the work when there is more than one.
+     */
+    public ParallelMode getParallelMode() {
+        return parallelMode;
+    }
+    
+    public void setParallelMode(ParallelMode parallelMode) {
+        this.parallelMode = parallelMode;
+    }
+    
+    /**
+     * Whether the AI searches its replies during the human's turn.
+     */
+    public boolean isPonderEnabled() {
+        return ponderEnabled;
+    }
+    
+    public void setPonderEnabled(boolean ponderEnabled) {
+        this.ponderEnabled = ponderEnabled;
+    }
+    
+    /**
+     * Wall-clock time the AI may ponder per human turn.
+     */
+    public long getPonderBudgetMillis() {
+        return ponderBudgetMillis;
+    }
+    
+    public void setPonderBudgetMillis(long ponderBudgetMillis) {
+        this.ponderBudgetMillis = ponderBudgetMillis;
+    }
 }
@@ -3,7 +3,7 @@ package edu.najah.ai.tictactoe.game;
 public class Move {
     private final int row;
     private final int col;
-    private int score;
+    private final int score;
     
     public Move(int row, int col) {
         this.row = row;
@@ -29,8 +29,11 @@ public class Move {
         return score;
     }
     
-    public void setScore(int score) {
-        this.score = score;
+    /**
+     * Returns the same cell with a different score.
+     */
+    public Move withScore(int score) {
+        return new Move(row, col, score);
     }
     
     @Override
@@ -1,17 +1,33 @@
 package edu.najah.ai.tictactoe.gui;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import edu.najah.ai.tictactoe.ai.AlphaBeta;
+import edu.najah.ai.tictactoe.ai.CachingEvaluator;
 import edu.najah.ai.tictactoe.ai.ClassicalEvaluator;
-import edu.najah.ai.tictactoe.ai.Evaluator;
+import edu.najah.ai.tictactoe.ai.Difficulty;
 import edu.najah.ai.tictactoe.ai.MLEvaluator;
+import edu.najah.ai.tictactoe.ai.Ponderer;
+import edu.najah.ai.tictactoe.ai.SearchHandle;
+import edu.najah.ai.tictactoe.ai.SearchMode;
+import edu.najah.ai.tictactoe.ai.SearchResult;
 import edu.najah.ai.tictactoe.game.Board;
 import edu.najah.ai.tictactoe.game.GameSettings;
 import edu.najah.ai.tictactoe.game.Move;
 import edu.najah.ai.tictactoe.game.Player;
+import edu.najah.ai.tictactoe.ml.TrainedModel;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -21,12 +37,30 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
 public class GameController {
     
+    private static final int BOARD_PIXELS = 400;
+    
+    // One engine per evaluator, shared by every game so its caches stay warm
+    private static final Map<GameSettings.EvaluationType, AlphaBeta> ENGINES = new EnumMap<>(GameSettings.EvaluationType.class);
+    
+    // Searches run here, never on the JavaFX thread; daemon threads so they never keep the app alive
+    private static final ExecutorService AI_EXECUTOR = Executors.newFixedThreadPool(2, new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "ai-search-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    
     @FXML
     private GridPane boardGrid;
     
@@ -45,34 +79,41 @@ public class GameController {
     @FXML
     private Label debugStatsLabel;
     
+    @FXML
+    private ProgressIndicator thinkingIndicator;
+    
     private Board board;
     private GameSettings settings;
     private AlphaBeta aiEngine;
+    private SearchResult lastResult; // For debug mode
     private Button[][] cellButtons;
+    private int fontSize;
     private boolean gameOver;
     private Player currentPlayer;
+    private SearchHandle pendingSearch; // the AI search in flight, if any
+    private Ponderer ponderer;
     
     @FXML
     public void initialize() {
         settings = GameSettings.getInstance();
-        cellButtons = new Button[3][3];
-        
-        // Create the board grid
-        createBoardUI();
     }
     
     public void initializeGame() {
-        board = new Board();
+        board = settings.getBoardVariant().createBoard();
         gameOver = false;
         
+        // Create the board grid
+        createBoardUI();
+        
         // Setup AI engine with selected evaluator
-        Evaluator evaluator;
-        if (settings.getEvaluationType() == GameSettings.EvaluationType.CLASSICAL) {
-            evaluator = new ClassicalEvaluator();
-        } else {
-            evaluator = new MLEvaluator();
-        }
-        aiEngine = new AlphaBeta(evaluator);
+        aiEngine = engineFor(settings.getEvaluationType());
+        aiEngine.setSearchMode(settings.getSearchMode());
+        aiEngine.setTimeBudgetMillis(settings.getTimeBudgetMillis());
+        aiEngine.setNodeBudget(settings.getNodeBudget());
+        aiEngine.setThreadCount(settings.getSearchThreads());
+        aiEngine.setParallelMode(settings.getParallelMode());
+        ponderer = new Ponderer(aiEngine);
+        ponderer.setBudgetMillis(settings.getPonderBudgetMillis());
         
         // Show/hide debug panel
         if (settings.isDebugMode()) {
@@ -91,27 +132,28 @@ public class GameController {
         
         // If AI is X, make AI move first
         if (settings.getAiPlayer() == Player.X) {
-            statusLabel.setText("AI is thinking...");
-            // Use a separate thread to avoid blocking UI
-            new Thread(() -> {
-                try {
-                    Thread.sleep(500); // Small delay for better UX
-                    Platform.runLater(this::makeAIMove);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }).start();
+            startAIMove(500); // Small delay for better UX
         } else {
-            statusLabel.setText("Your turn!");
+            startHumanTurn();
         }
     }
     
     private void createBoardUI() {
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        cellButtons = new Button[rows][cols];
+        boardGrid.getChildren().clear();
+        
+        // Shrink cells so larger boards still fit the window
+        int cellSize = Math.min(120, BOARD_PIXELS / Math.max(rows, cols));
+        fontSize = Math.max(10, cellSize * 3 / 10);
+        
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
                 Button button = new Button();
-                button.setPrefSize(120, 120);
-                button.setStyle("-fx-font-size: 36px; -fx-font-weight: bold; " +
+                button.setPrefSize(cellSize, cellSize);
+                button.setMinSize(cellSize, cellSize);
+                button.setStyle(fontStyle() +
                               "-fx-background-color: white; " +
                               "-fx-border-color: #bdc3c7; " +
                               "-fx-border-width: 2;");
@@ -149,17 +191,7 @@ public class GameController {
         
         // AI's turn
         currentPlayer = settings.getAiPlayer();
-        statusLabel.setText("AI is thinking...");
-        
-        // Make AI move in a separate thread
-        new Thread(() -> {
-            try {
-                Thread.sleep(300); // Small delay for better UX
-                Platform.runLater(this::makeAIMove);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }).start();
+        startAIMove(300); // Small delay for better UX
     }
     
     private void makeMove(int row, int col, Player player) {
@@ -167,12 +199,89 @@ public class GameController {
         updateCell(row, col, player);
     }
     
-    private void makeAIMove() {
-        if (gameOver) {
+    private static synchronized AlphaBeta engineFor(GameSettings.EvaluationType type) {
+        return ENGINES.computeIfAbsent(type, t -> new AlphaBeta(
+            t == GameSettings.EvaluationType.CLASSICAL ? new ClassicalEvaluator() : new CachingEvaluator(new MLEvaluator())));
+    }
+    
+    /**
+     * Lets the human move and, if enabled, ponders the AI's replies meanwhile.
+     */
+    private void startHumanTurn() {
+        statusLabel.setText("Your turn!");
+        if (settings.isPonderEnabled()) {
+            ponderer.start(board, settings.getHumanPlayer(), settings.getAiPlayer(), settings.getDifficulty(), depthLimit(), AI_EXECUTOR);
+        }
+    }
+    
+    /**
+     * Plays the AI's move on the JavaFX thread once it is known. A position pondered
+     * during the human's turn is answered at once; otherwise it is searched on the AI
+     * executor, on a copy of the board. Either can be stopped with {@link #cancelAIMove()}.
+     */
+    private void startAIMove(long delayMillis) {
+        statusLabel.setText("AI is thinking...");
+        thinkingIndicator.setVisible(true);
+        
+        SearchHandle handle = new SearchHandle();
+        pendingSearch = handle;
+        CompletableFuture<SearchResult> pondered = ponderer.take(board);
+        if (pondered != null) {
+            // A null result means the pondering budget cut the search short
+            pondered.whenComplete((result, error) -> Platform.runLater(() -> {
+                if (result == null && error == null) {
+                    searchAIMove(handle, 0);
+                } else {
+                    finishAIMove(handle, result, error);
+                }
+            }));
+        } else {
+            searchAIMove(handle, delayMillis);
+        }
+    }
+    
+    private void searchAIMove(SearchHandle handle, long delayMillis) {
+        if (handle != pendingSearch) {
+            return;
+        }
+        AlphaBeta engine = aiEngine;
+        Board position = new Board(board);
+        Player aiPlayer = settings.getAiPlayer();
+        Difficulty difficulty = settings.getDifficulty();
+        int depthLimit = depthLimit();
+        
+        Executor delayed = CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS, AI_EXECUTOR);
+        CompletableFuture
+            .supplyAsync(() -> handle.isCancelled() ? null : engine.search(position, aiPlayer, difficulty, depthLimit, handle), delayed)
+            .whenComplete((result, error) -> Platform.runLater(() -> finishAIMove(handle, result, error)));
+    }
+    
+    /**
+     * Stops pondering and the AI search in flight, if any; its result will be dropped.
+     */
+    private void cancelAIMove() {
+        ponderer.stop();
+        if (pendingSearch != null) {
+            pendingSearch.cancel();
+            pendingSearch = null;
+        }
+        thinkingIndicator.setVisible(false);
+    }
+    
+    private void finishAIMove(SearchHandle handle, SearchResult result, Throwable error) {
+        if (handle != pendingSearch || handle.isCancelled() || gameOver) {
+            return; // Cancelled by a restart or by leaving the game
+        }
+        pendingSearch = null;
+        thinkingIndicator.setVisible(false);
+        if (error != null) {
+            error.printStackTrace();
+            statusLabel.setText("AI search failed: " + error.getMessage());
             return;
         }
         
-        Move bestMove = aiEngine.findBestMove(board, settings.getAiPlayer(), settings.getDifficulty());
+        lastResult = result;
+        Move bestMove = lastResult.getBestMove();
         
         if (bestMove != null) {
             makeMove(bestMove.getRow(), bestMove.getCol(), settings.getAiPlayer());
@@ -189,8 +298,19 @@ public class GameController {
             
             // Human's turn
             currentPlayer = settings.getHumanPlayer();
-            statusLabel.setText("Your turn!");
+            startHumanTurn();
+        }
+    }
+    
+    /**
+     * Fixed-depth searches are capped per board variant; iterative deepening is
+     * bounded by its time budget instead.
+     */
+    private int depthLimit() {
+        if (settings.getSearchMode() == SearchMode.ITERATIVE_DEEPENING) {
+            return settings.getDifficulty().getDepth();
         }
+        return settings.getBoardVariant().getDepthLimit();
     }
     
     private void updateCell(int row, int col, Player player) {
@@ -198,13 +318,13 @@ public class GameController {
         button.setText(player.toString());
         
         if (player == Player.X) {
-            button.setStyle("-fx-font-size: 36px; -fx-font-weight: bold; " +
+            button.setStyle(fontStyle() +
                           "-fx-background-color: #e8f4f8; " +
                           "-fx-text-fill: #3498db; " +
                           "-fx-border-color: #bdc3c7; " +
                           "-fx-border-width: 2;");
         } else {
-            button.setStyle("-fx-font-size: 36px; -fx-font-weight: bold; " +
+            button.setStyle(fontStyle() +
                           "-fx-background-color: #fef5e7; " +
                           "-fx-text-fill: #e74c3c; " +
                           "-fx-border-color: #bdc3c7; " +
@@ -235,51 +355,19 @@ public class GameController {
     }
     
     private void highlightWinner(Player winner) {
-        // Check rows
-        for (int i = 0; i < 3; i++) {
-            if (board.getCell(i, 0) == winner && 
-                board.getCell(i, 1) == winner && 
-                board.getCell(i, 2) == winner) {
-                highlightCells(i, 0, i, 1, i, 2);
-                return;
-            }
-        }
-        
-        // Check columns
-        for (int j = 0; j < 3; j++) {
-            if (board.getCell(0, j) == winner && 
-                board.getCell(1, j) == winner && 
-                board.getCell(2, j) == winner) {
-                highlightCells(0, j, 1, j, 2, j);
-                return;
-            }
-        }
-        
-        // Check diagonals
-        if (board.getCell(0, 0) == winner && 
-            board.getCell(1, 1) == winner && 
-            board.getCell(2, 2) == winner) {
-            highlightCells(0, 0, 1, 1, 2, 2);
-            return;
-        }
-        
-        if (board.getCell(0, 2) == winner && 
-            board.getCell(1, 1) == winner && 
-            board.getCell(2, 0) == winner) {
-            highlightCells(0, 2, 1, 1, 2, 0);
-        }
-    }
-    
-    private void highlightCells(int r1, int c1, int r2, int c2, int r3, int c3) {
-        String highlightStyle = "-fx-font-size: 36px; -fx-font-weight: bold; " +
+        String highlightStyle = fontStyle() +
                                "-fx-background-color: #2ecc71; " +
                                "-fx-text-fill: white; " +
                                "-fx-border-color: #27ae60; " +
                                "-fx-border-width: 3;";
         
-        cellButtons[r1][c1].setStyle(highlightStyle);
-        cellButtons[r2][c2].setStyle(highlightStyle);
-        cellButtons[r3][c3].setStyle(highlightStyle);
+        for (Move cell : board.getWinningLine()) {
+            cellButtons[cell.getRow()][cell.getCol()].setStyle(highlightStyle);
+        }
+    }
+    
+    private String fontStyle() {
+        return "-fx-font-size: " + fontSize + "px; -fx-font-weight: bold; ";
     }
     
     private void showGameOverDialog(String message) {
@@ -305,7 +393,7 @@ public class GameController {
     private void updateDebugInfo() {
         debugScoresBox.getChildren().clear();
         
-        List<Move> moveScores = aiEngine.getLastMoveScores();
+        List<Move> moveScores = new ArrayList<>(lastResult.getMoveScores());
         
         // Sort by score (descending)
         moveScores.sort((m1, m2) -> Integer.compare(m2.getScore(), m1.getScore()));
@@ -318,19 +406,36 @@ public class GameController {
         
         // Update stats
         String stats = String.format(
-            "Nodes evaluated: %d\nBranches pruned: %d\nDepth limit: %d",
-            aiEngine.getNodesEvaluated(),
-            aiEngine.getPruneCount(),
-            settings.getDifficulty().getDepth()
+            "Nodes evaluated: %d\nBranches pruned: %d\nTable hits/misses: %d/%d\nDepth searched: %d\nSearch time: %d ms\nThreads: %d (%.1f cores busy)",
+            lastResult.getNodesEvaluated(),
+            lastResult.getPruneCount(),
+            lastResult.getTableHits(),
+            lastResult.getTableMisses(),
+            lastResult.getCompletedDepth(),
+            lastResult.getElapsedMillis(),
+            lastResult.getThreadCount(),
+            lastResult.getCoresBusy()
         );
+        if (aiEngine.getEvaluator() instanceof CachingEvaluator) {
+            CachingEvaluator cache = (CachingEvaluator) aiEngine.getEvaluator();
+            stats += String.format("\nEval cache hit rate: %.1f%%", cache.getHitRate() * 100);
+        }
+        if (settings.isPonderEnabled()) {
+            stats += String.format("\nPonder hit rate: %.1f%% (%d/%d)",
+                ponderer.getHitRate() * 100, ponderer.getHits(), ponderer.getHits() + ponderer.getMisses());
+        }
+        if (settings.getEvaluationType() == GameSettings.EvaluationType.ML && !TrainedModel.isTrained()) {
+            stats += "\nML model still training (classical fallback)";
+        }
         debugStatsLabel.setText(stats);
     }
     
     private void updateInfoLabel() {
         String info = String.format(
-            "You: %s | AI: %s | Difficulty: %s | Evaluator: %s",
+            "You: %s | AI: %s | Board: %s | Difficulty: %s | Evaluator: %s",
             settings.getHumanPlayer(),
             settings.getAiPlayer(),
+            settings.getBoardVariant(),
             settings.getDifficulty(),
             settings.getEvaluationType()
         );
@@ -339,15 +444,17 @@ public class GameController {
     
     @FXML
     private void handleRestart() {
+        cancelAIMove();
+        
         // Reset board
         board.reset();
         gameOver = false;
         
         // Clear UI
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
+        for (int i = 0; i < board.getRows(); i++) {
+            for (int j = 0; j < board.getCols(); j++) {
                 cellButtons[i][j].setText("");
-                cellButtons[i][j].setStyle("-fx-font-size: 36px; -fx-font-weight: bold; " +
+                cellButtons[i][j].setStyle(fontStyle() +
                                           "-fx-background-color: white; " +
                                           "-fx-border-color: #bdc3c7; " +
                                           "-fx-border-width: 2;");
@@ -366,22 +473,15 @@ public class GameController {
         
         // If AI is X, make AI move first
         if (settings.getAiPlayer() == Player.X) {
-            statusLabel.setText("AI is thinking...");
-            new Thread(() -> {
-                try {
-                    Thread.sleep(500);
-                    Platform.runLater(this::makeAIMove);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }).start();
+            startAIMove(500);
         } else {
-            statusLabel.setText("Your turn!");
+            startHumanTurn();
         }
     }
     
     @FXML
     private void handleBackToMenu() {
+        cancelAIMove();
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/menu.fxml"));
             Parent root = loader.load();
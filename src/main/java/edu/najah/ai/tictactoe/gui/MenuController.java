@@ -1,5 +1,7 @@
 package edu.najah.ai.tictactoe.gui;
 
+import edu.najah.ai.tictactoe.ml.TrainedModel;
+import edu.najah.ai.tictactoe.ml.TrainingJob;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -7,6 +9,9 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
 import java.io.IOException;
@@ -25,6 +30,28 @@ public class MenuController {
     @FXML
     private Button exitButton;
     
+    @FXML
+    private VBox trainingBox;
+    
+    @FXML
+    private Label trainingLabel;
+    
+    @FXML
+    private ProgressBar trainingProgress;
+    
+    @FXML
+    public void initialize() {
+        // Show the background model training until the weights are published
+        TrainingJob job = TrainedModel.initializeAsync();
+        trainingBox.managedProperty().bind(trainingBox.visibleProperty());
+        trainingBox.setVisible(!job.isDone());
+        job.addProgressListener(progress -> Platform.runLater(() -> {
+            trainingProgress.setProgress(progress);
+            trainingLabel.setText(String.format("Training ML model... %.0f%% (classical evaluation until ready)", progress * 100));
+        }));
+        job.completion().whenComplete((ignored, error) -> Platform.runLater(() -> trainingBox.setVisible(false)));
+    }
+    
     @FXML
     private void handleStartGame() {
         try {
@@ -1,6 +1,8 @@
 package edu.najah.ai.tictactoe.gui;
 
 import edu.najah.ai.tictactoe.ai.Difficulty;
+import edu.najah.ai.tictactoe.ai.ParallelMode;
+import edu.najah.ai.tictactoe.ai.SearchMode;
 import edu.najah.ai.tictactoe.game.GameSettings;
 import edu.najah.ai.tictactoe.game.Player;
 import javafx.fxml.FXML;
@@ -23,12 +25,33 @@ public class SettingsController {
     @FXML
     private ToggleGroup playerGroup;
     
+    @FXML
+    private ComboBox<GameSettings.BoardVariant> boardCombo;
+    
     @FXML
     private ComboBox<String> difficultyCombo;
     
     @FXML
     private ComboBox<String> evaluationCombo;
     
+    @FXML
+    private ComboBox<String> searchModeCombo;
+    
+    @FXML
+    private ComboBox<Long> timeBudgetCombo;
+    
+    @FXML
+    private ComboBox<Integer> threadsCombo;
+    
+    @FXML
+    private ComboBox<String> parallelModeCombo;
+    
+    @FXML
+    private CheckBox ponderCheck;
+    
+    @FXML
+    private ComboBox<Long> ponderBudgetCombo;
+    
     @FXML
     private CheckBox debugModeCheck;
     
@@ -38,12 +61,34 @@ public class SettingsController {
     public void initialize() {
         settings = GameSettings.getInstance();
         
+        // Populate board combo box
+        boardCombo.getItems().addAll(GameSettings.BoardVariant.values());
+        
         // Populate difficulty combo box
         difficultyCombo.getItems().addAll("Easy", "Normal", "Hard");
         
         // Populate evaluation combo box
         evaluationCombo.getItems().addAll("Classical", "ML");
         
+        // Populate search mode combo box
+        searchModeCombo.getItems().addAll("Alpha-Beta", "Iterative deepening", "Solved table (3x3)");
+        
+        // Populate time budget combo box (milliseconds per move)
+        timeBudgetCombo.getItems().addAll(250L, 500L, 1000L, 2000L, 5000L);
+        timeBudgetCombo.disableProperty().bind(searchModeCombo.valueProperty().isNotEqualTo("Iterative deepening"));
+        
+        // Populate search threads combo box, up to the number of available cores
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            threadsCombo.getItems().add(threads);
+        }
+        parallelModeCombo.getItems().addAll("Root split", "Lazy SMP");
+        parallelModeCombo.disableProperty().bind(threadsCombo.valueProperty().isEqualTo(1));
+        
+        // Populate ponder budget combo box (milliseconds per human turn)
+        ponderBudgetCombo.getItems().addAll(500L, 1000L, 2000L, 5000L, 10000L);
+        ponderBudgetCombo.disableProperty().bind(ponderCheck.selectedProperty().not());
+        
         // Load current settings
         loadSettings();
     }
@@ -56,6 +101,9 @@ public class SettingsController {
             playerORadio.setSelected(true);
         }
         
+        // Set board
+        boardCombo.setValue(settings.getBoardVariant());
+        
         // Set difficulty
         switch (settings.getDifficulty()) {
             case EASY:
@@ -76,6 +124,24 @@ public class SettingsController {
             evaluationCombo.setValue("ML");
         }
         
+        // Set search mode
+        switch (settings.getSearchMode()) {
+            case ITERATIVE_DEEPENING:
+                searchModeCombo.setValue("Iterative deepening");
+                break;
+            case SOLVED_TABLE:
+                searchModeCombo.setValue("Solved table (3x3)");
+                break;
+            default:
+                searchModeCombo.setValue("Alpha-Beta");
+                break;
+        }
+        timeBudgetCombo.setValue(settings.getTimeBudgetMillis());
+        threadsCombo.setValue(settings.getSearchThreads());
+        parallelModeCombo.setValue(settings.getParallelMode() == ParallelMode.LAZY_SMP ? "Lazy SMP" : "Root split");
+        ponderCheck.setSelected(settings.isPonderEnabled());
+        ponderBudgetCombo.setValue(settings.getPonderBudgetMillis());
+        
         // Set debug mode
         debugModeCheck.setSelected(settings.isDebugMode());
     }
@@ -89,6 +155,11 @@ public class SettingsController {
             settings.setHumanPlayer(Player.O);
         }
         
+        // Save board
+        if (boardCombo.getValue() != null) {
+            settings.setBoardVariant(boardCombo.getValue());
+        }
+        
         // Save difficulty
         String difficulty = difficultyCombo.getValue();
         if (difficulty != null) {
@@ -115,6 +186,37 @@ public class SettingsController {
             }
         }
         
+        // Save search mode
+        String searchMode = searchModeCombo.getValue();
+        if (searchMode != null) {
+            switch (searchMode) {
+                case "Iterative deepening":
+                    settings.setSearchMode(SearchMode.ITERATIVE_DEEPENING);
+                    break;
+                case "Solved table (3x3)":
+                    settings.setSearchMode(SearchMode.SOLVED_TABLE);
+                    break;
+                default:
+                    settings.setSearchMode(SearchMode.ALPHA_BETA);
+                    break;
+            }
+        }
+        if (timeBudgetCombo.getValue() != null) {
+            settings.setTimeBudgetMillis(timeBudgetCombo.getValue());
+        }
+        if (threadsCombo.getValue() != null) {
+            settings.setSearchThreads(threadsCombo.getValue());
+        }
+        if ("Lazy SMP".equals(parallelModeCombo.getValue())) {
+            settings.setParallelMode(ParallelMode.LAZY_SMP);
+        } else {
+            settings.setParallelMode(ParallelMode.ROOT_SPLIT);
+        }
+        settings.setPonderEnabled(ponderCheck.isSelected());
+        if (ponderBudgetCombo.getValue() != null) {
+            settings.setPonderBudgetMillis(ponderBudgetCombo.getValue());
+        }
+        
         // Save debug mode
         settings.setDebugMode(debugModeCheck.isSelected());
         
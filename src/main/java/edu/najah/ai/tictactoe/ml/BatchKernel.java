@@ -0,0 +1,19 @@
+package edu.najah.ai.tictactoe.ml;
+
+/**
+ * Computes the linear model over a block of feature columns. Implementations must
+ * add the terms in feature order without fusing multiply and add, so every
+ * kernel returns exactly the scores of {@link TrainedModel#predict(double[])}.
+ */
+interface BatchKernel {
+    
+    /**
+     * Sets {@code out[i] = bias + weights[0] * columns[0][i] + ... } for every {@code i < size}.
+     */
+    void dot(double[][] columns, int size, double[] weights, double bias, double[] out);
+    
+    /**
+     * Short description for logs, e.g. "scalar" or "vector (4 lanes)".
+     */
+    String describe();
+}
@@ -0,0 +1,223 @@
+package edu.najah.ai.tictactoe.ml;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Read-only view of a binary columnar dataset written by {@link ColumnarDatasetWriter}.
+ * 
+ * File layout (big-endian):
+ * <pre>
+ *   header (32 bytes): magic "TTDS", version, feature count, row group size, row count (long), 8 reserved bytes
+ *   row groups:        for each group, one column of unsigned feature bytes per feature, then a column
+ *                      of signed label bytes; every group but the last holds exactly row-group-size rows
+ * </pre>
+ * Row groups are memory-mapped one at a time when they are requested, so iterating
+ * over a dataset larger than the heap only keeps the current group resident.
+ */
+public final class ColumnarDataset implements Closeable, Iterable<ColumnarDataset.RowGroup> {
+    
+    static final int MAGIC = 0x54544453; // "TTDS"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    
+    private final FileChannel channel;
+    private final int featureCount;
+    private final int rowGroupSize;
+    private final long rowCount;
+    
+    private ColumnarDataset(FileChannel channel, int featureCount, int rowGroupSize, long rowCount) {
+        this.channel = channel;
+        this.featureCount = featureCount;
+        this.rowGroupSize = rowGroupSize;
+        this.rowCount = rowCount;
+    }
+    
+    /**
+     * Opens a dataset file and checks its header against the file size.
+     */
+    public static ColumnarDataset open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is complete or the file ends
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                throw new IOException("Not a columnar dataset: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported dataset version " + version + ": " + path);
+            }
+            int featureCount = header.getInt();
+            int rowGroupSize = header.getInt();
+            long rowCount = header.getLong();
+            long expected = HEADER_BYTES + rowCount * (featureCount + 1);
+            if (featureCount <= 0 || rowGroupSize <= 0 || rowCount < 0 || channel.size() != expected) {
+                throw new IOException("Corrupt dataset header (expected " + expected + " bytes, file has "
+                    + channel.size() + "): " + path);
+            }
+            return new ColumnarDataset(channel, featureCount, rowGroupSize, rowCount);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    public int featureCount() {
+        return featureCount;
+    }
+    
+    public long rowCount() {
+        return rowCount;
+    }
+    
+    public int rowGroupSize() {
+        return rowGroupSize;
+    }
+    
+    public int rowGroupCount() {
+        return (int) ((rowCount + rowGroupSize - 1) / rowGroupSize);
+    }
+    
+    /**
+     * Maps row group {@code group} into memory.
+     */
+    public RowGroup rowGroup(int group) throws IOException {
+        if (group < 0 || group >= rowGroupCount()) {
+            throw new IndexOutOfBoundsException("Row group " + group + " of " + rowGroupCount());
+        }
+        long firstRow = (long) group * rowGroupSize;
+        int rows = (int) Math.min(rowGroupSize, rowCount - firstRow);
+        long offset = HEADER_BYTES + firstRow * (featureCount + 1);
+        ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, offset, (long) rows * (featureCount + 1));
+        return new RowGroup(data, rows, featureCount);
+    }
+    
+    /**
+     * Row groups in file order, each mapped when the iterator reaches it.
+     */
+    @Override
+    public Iterator<RowGroup> iterator() {
+        return new Iterator<>() {
+            private int next;
+            
+            @Override
+            public boolean hasNext() {
+                return next < rowGroupCount();
+            }
+            
+            @Override
+            public RowGroup next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    return rowGroup(next++);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+    
+    /**
+     * Reads the whole dataset into a {@link TrainingSet}; only for datasets that fit in the heap.
+     */
+    public TrainingSet load() throws IOException {
+        if (rowCount > Integer.MAX_VALUE) {
+            throw new IOException("Dataset has " + rowCount + " rows, too many to load at once");
+        }
+        int rows = (int) rowCount;
+        double[][] columns = new double[featureCount][rows];
+        double[] labels = new double[rows];
+        int start = 0;
+        for (RowGroup group : this) {
+            group.copyTo(columns, labels, start);
+            start += group.rows();
+        }
+        return new TrainingSet(columns, labels);
+    }
+    
+    /**
+     * Closes the file. Row groups that were already mapped stay readable.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+    /**
+     * One mapped row group with primitive views of its columns.
+     */
+    public static final class RowGroup {
+        private final ByteBuffer data;
+        private final int rows;
+        private final int featureCount;
+        
+        RowGroup(ByteBuffer data, int rows, int featureCount) {
+            this.data = data;
+            this.rows = rows;
+            this.featureCount = featureCount;
+        }
+        
+        public int rows() {
+            return rows;
+        }
+        
+        /**
+         * Read-only view of feature {@code feature}, one unsigned byte per row.
+         */
+        public ByteBuffer column(int feature) {
+            return data.slice(feature * rows, rows).asReadOnlyBuffer();
+        }
+        
+        /**
+         * Read-only view of the labels, one signed byte per row (+1 X wins, -1 O wins).
+         */
+        public ByteBuffer labels() {
+            return data.slice(featureCount * rows, rows).asReadOnlyBuffer();
+        }
+        
+        public int feature(int feature, int row) {
+            return data.get(feature * rows + row) & 0xFF;
+        }
+        
+        public int label(int row) {
+            return data.get(featureCount * rows + row);
+        }
+        
+        /**
+         * Decodes this group into a {@link TrainingSet}.
+         */
+        public TrainingSet toTrainingSet() {
+            double[][] columns = new double[featureCount][rows];
+            double[] labels = new double[rows];
+            copyTo(columns, labels, 0);
+            return new TrainingSet(columns, labels);
+        }
+        
+        void copyTo(double[][] columns, double[] labels, int start) {
+            for (int f = 0; f < featureCount; f++) {
+                double[] column = columns[f];
+                int base = f * rows;
+                for (int row = 0; row < rows; row++) {
+                    column[start + row] = data.get(base + row) & 0xFF;
+                }
+            }
+            int base = featureCount * rows;
+            for (int row = 0; row < rows; row++) {
+                labels[start + row] = data.get(base + row);
+            }
+        }
+    }
+}
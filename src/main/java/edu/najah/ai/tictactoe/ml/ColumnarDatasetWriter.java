@@ -0,0 +1,114 @@
+package edu.najah.ai.tictactoe.ml;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes rows into the binary columnar format read by {@link ColumnarDataset}.
+ * Rows are buffered one row group at a time, so memory use does not grow with
+ * the dataset. Not thread-safe.
+ */
+public final class ColumnarDatasetWriter implements Closeable {
+    
+    public static final int DEFAULT_ROW_GROUP_SIZE = 1 << 16;
+    
+    private final FileChannel channel;
+    private final int featureCount;
+    private final int rowGroupSize;
+    private final byte[][] columns; // current group: one array per feature, then the labels
+    private int groupRows;
+    private long rowCount;
+    
+    public ColumnarDatasetWriter(Path path, int featureCount) throws IOException {
+        this(path, featureCount, DEFAULT_ROW_GROUP_SIZE);
+    }
+    
+    /**
+     * Creates (or truncates) {@code path}.
+     */
+    public ColumnarDatasetWriter(Path path, int featureCount, int rowGroupSize) throws IOException {
+        if (featureCount <= 0 || rowGroupSize <= 0) {
+            throw new IllegalArgumentException("Feature count and row group size must be positive");
+        }
+        this.featureCount = featureCount;
+        this.rowGroupSize = rowGroupSize;
+        this.columns = new byte[featureCount + 1][rowGroupSize];
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        writeHeader(); // the row count is filled in by close()
+        channel.position(ColumnarDataset.HEADER_BYTES);
+    }
+    
+    /**
+     * Appends one row.
+     * 
+     * @param features feature values, each 0-255
+     * @param label +1 if X won, -1 if O won (any value that fits in a byte is stored as is)
+     */
+    public void addRow(int[] features, int label) throws IOException {
+        if (features.length != featureCount) {
+            throw new IllegalArgumentException("Expected " + featureCount + " features, got " + features.length);
+        }
+        for (int f = 0; f < featureCount; f++) {
+            if (features[f] < 0 || features[f] > 0xFF) {
+                throw new IllegalArgumentException("Feature " + f + " does not fit in a byte: " + features[f]);
+            }
+            columns[f][groupRows] = (byte) features[f];
+        }
+        if (label < Byte.MIN_VALUE || label > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Label does not fit in a byte: " + label);
+        }
+        columns[featureCount][groupRows] = (byte) label;
+        groupRows++;
+        rowCount++;
+        if (groupRows == rowGroupSize) {
+            flushGroup();
+        }
+    }
+    
+    public long rowCount() {
+        return rowCount;
+    }
+    
+    private void flushGroup() throws IOException {
+        for (byte[] column : columns) {
+            ByteBuffer buffer = ByteBuffer.wrap(column, 0, groupRows);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        groupRows = 0;
+    }
+    
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(ColumnarDataset.HEADER_BYTES);
+        header.putInt(ColumnarDataset.MAGIC)
+            .putInt(ColumnarDataset.VERSION)
+            .putInt(featureCount)
+            .putInt(rowGroupSize)
+            .putLong(rowCount);
+        header.clear();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+    
+    /**
+     * Writes the last (partial) row group and the final row count.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (groupRows > 0) {
+                flushGroup();
+            }
+            writeHeader();
+        } finally {
+            channel.close();
+        }
+    }
+}
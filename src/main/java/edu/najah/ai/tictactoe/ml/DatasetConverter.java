@@ -0,0 +1,146 @@
+package edu.najah.ai.tictactoe.ml;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Converts a CSV dataset (same columns as {@link DatasetLoader}) into the binary
+ * columnar format of {@link ColumnarDataset}. Rows are streamed, so the CSV can
+ * be larger than the heap.
+ * 
+ * Usage:
+ * <pre>
+ *   DatasetConverter INPUT.csv OUTPUT.ttds [--row-group=N]
+ * </pre>
+ * INPUT may also be a classpath resource such as {@code /dataset/tictactoe_dataset.csv}.
+ */
+public final class DatasetConverter {
+    
+    private DatasetConverter() {
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: DatasetConverter INPUT.csv OUTPUT.ttds [--row-group=N]");
+            System.exit(2);
+        }
+        int rowGroupSize = ColumnarDatasetWriter.DEFAULT_ROW_GROUP_SIZE;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].startsWith("--row-group=")) {
+                rowGroupSize = Integer.parseInt(args[i].substring("--row-group=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        
+        long start = System.nanoTime();
+        long rows;
+        try (BufferedReader reader = open(args[0])) {
+            rows = convert(reader, Paths.get(args[1]), rowGroupSize);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Wrote %d rows to %s in %.2f s (%d bytes)\n", rows, args[1], seconds,
+            Files.size(Paths.get(args[1])));
+    }
+    
+    private static BufferedReader open(String input) throws IOException {
+        Path path = Paths.get(input);
+        if (Files.isRegularFile(path)) {
+            return Files.newBufferedReader(path, StandardCharsets.UTF_8);
+        }
+        InputStream is = DatasetConverter.class.getResourceAsStream(input);
+        if (is == null) {
+            throw new IOException("Dataset file not found: " + input);
+        }
+        return new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Reads CSV rows (header line first, label in the last column) and writes them
+     * to {@code output}. Malformed lines are skipped with a warning.
+     * 
+     * @return number of rows written
+     */
+    public static long convert(BufferedReader reader, Path output, int rowGroupSize) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IOException("Dataset file is empty");
+        }
+        int featureCount = header.split(",").length - 1;
+        int[] fields = new int[featureCount + 1];
+        int[] features = new int[featureCount];
+        
+        try (ColumnarDatasetWriter writer = new ColumnarDatasetWriter(output, featureCount, rowGroupSize)) {
+            String line;
+            long lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (!parseFields(line, fields)) {
+                    System.err.println("Warning: Skipping invalid line " + lineNumber + ": " + line);
+                    continue;
+                }
+                System.arraycopy(fields, 0, features, 0, featureCount);
+                try {
+                    writer.addRow(features, fields[featureCount]);
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Warning: Skipping line " + lineNumber + " (" + e.getMessage() + ")");
+                }
+            }
+            return writer.rowCount();
+        }
+    }
+    
+    /**
+     * Parses exactly {@code fields.length} comma-separated integers (a fraction of
+     * zeros such as {@code 1.0} is accepted) without splitting the line.
+     */
+    private static boolean parseFields(String line, int[] fields) {
+        int length = line.length();
+        int pos = 0;
+        for (int field = 0; field < fields.length; field++) {
+            while (pos < length && line.charAt(pos) == ' ') {
+                pos++;
+            }
+            boolean negative = pos < length && line.charAt(pos) == '-';
+            if (negative || (pos < length && line.charAt(pos) == '+')) {
+                pos++;
+            }
+            int digitsStart = pos;
+            int value = 0;
+            while (pos < length && line.charAt(pos) >= '0' && line.charAt(pos) <= '9') {
+                value = value * 10 + (line.charAt(pos++) - '0');
+                if (value > 0xFFFF) {
+                    return false;
+                }
+            }
+            if (pos == digitsStart) {
+                return false;
+            }
+            if (pos < length && line.charAt(pos) == '.') {
+                pos++;
+                while (pos < length && line.charAt(pos) == '0') {
+                    pos++;
+                }
+            }
+            while (pos < length && Character.isWhitespace(line.charAt(pos))) {
+                pos++;
+            }
+            fields[field] = negative ? -value : value;
+            
+            boolean last = field == fields.length - 1;
+            if (last ? pos != length : (pos == length || line.charAt(pos++) != ',')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
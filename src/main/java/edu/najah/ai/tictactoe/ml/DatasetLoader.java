@@ -4,11 +4,14 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Loads training data from CSV file in resources.
+ * Loads training data from CSV file in resources, or from a file on disk.
  */
 public class DatasetLoader {
     
@@ -27,14 +30,29 @@ public class DatasetLoader {
      * Expected columns: f1_X_count, f2_O_count, f3_X_almost_win, f4_O_almost_win, f5_X_center, f6_X_corners, label
      */
     public static List<DataLine> loadDataset(String resourcePath) throws IOException {
-        List<DataLine> dataset = new ArrayList<>();
-        
         InputStream is = DatasetLoader.class.getResourceAsStream(resourcePath);
         if (is == null) {
             throw new IOException("Dataset file not found: " + resourcePath);
         }
         
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
+        List<DataLine> dataset = read(new BufferedReader(new InputStreamReader(is)));
+        System.out.println("Loaded " + dataset.size() + " training examples from " + resourcePath);
+        return dataset;
+    }
+    
+    /**
+     * Load dataset from a CSV file on disk, in the same format as {@link #loadDataset(String)}.
+     */
+    public static List<DataLine> loadDataset(Path path) throws IOException {
+        List<DataLine> dataset = read(Files.newBufferedReader(path, StandardCharsets.UTF_8));
+        System.out.println("Loaded " + dataset.size() + " training examples from " + path);
+        return dataset;
+    }
+    
+    private static List<DataLine> read(BufferedReader in) throws IOException {
+        List<DataLine> dataset = new ArrayList<>();
+        
+        try (BufferedReader reader = in) {
             // Skip header line
             String headerLine = reader.readLine();
             if (headerLine == null) {
@@ -71,7 +89,6 @@ public class DatasetLoader {
             }
         }
         
-        System.out.println("Loaded " + dataset.size() + " training examples from " + resourcePath);
         return dataset;
     }
 }
@@ -0,0 +1,68 @@
+package edu.najah.ai.tictactoe.ml;
+
+import edu.najah.ai.tictactoe.game.Board;
+import edu.najah.ai.tictactoe.game.Player;
+
+import java.util.Arrays;
+
+/**
+ * Features of many positions stored column by column (one array per feature),
+ * so batch inference can run over each feature with unit stride.
+ * Reused between batches; it only allocates when a batch outgrows it.
+ */
+public final class FeatureBlock {
+    
+    private double[][] columns; // columns[feature][row]
+    private double[] scores;    // raw model output, filled by TrainedModel
+    private final int[] row = new int[FeatureExtractor.FEATURE_COUNT];
+    private int size;
+    
+    public FeatureBlock(int capacity) {
+        columns = new double[FeatureExtractor.FEATURE_COUNT][Math.max(1, capacity)];
+        scores = new double[Math.max(1, capacity)];
+    }
+    
+    /**
+     * Appends the features of {@code board}.
+     * 
+     * @return the row the position was stored in
+     */
+    public int add(Board board) {
+        if (size == scores.length) {
+            grow();
+        }
+        FeatureExtractor.extract(board, Player.X, row);
+        for (int f = 0; f < row.length; f++) {
+            columns[f][size] = row[f];
+        }
+        return size++;
+    }
+    
+    private void grow() {
+        int capacity = scores.length * 2;
+        for (int f = 0; f < columns.length; f++) {
+            columns[f] = Arrays.copyOf(columns[f], capacity);
+        }
+        scores = Arrays.copyOf(scores, capacity);
+    }
+    
+    public double get(int feature, int row) {
+        return columns[feature][row];
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public void clear() {
+        size = 0;
+    }
+    
+    double[][] columns() {
+        return columns;
+    }
+    
+    double[] scores() {
+        return scores;
+    }
+}
@@ -1,11 +1,29 @@
 package edu.najah.ai.tictactoe.ml;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleConsumer;
+import java.util.function.Function;
+import java.util.zip.Checksum;
 
 /**
  * Logistic Regression trainer for Tic-Tac-Toe evaluation.
  * Trains a model to predict game outcomes based on board features.
+ * 
+ * {@link #train} runs full-batch gradient descent on one thread, which suits the
+ * bundled dataset. {@link #trainMiniBatch} is meant for large self-play datasets:
+ * it shuffles the rows every epoch and sums each mini-batch's gradient on a
+ * fork/join pool, each task into its own partial sums. Given a
+ * {@link ColumnarDataset} it streams the data one row group at a time.
  */
 public class LogisticRegressionTrainer {
     
@@ -17,6 +35,19 @@ public class LogisticRegressionTrainer {
     private static final double LEARNING_RATE = 0.01;
     private static final int MAX_ITERATIONS = 1000;
     private static final double CONVERGENCE_THRESHOLD = 0.0001;
+    private static final long INITIAL_WEIGHT_SEED = 42;
+    
+    // Mini-batch mode
+    private static final int SPLIT_THRESHOLD = 1024; // rows summed by one task without splitting
+    private int batchSize = 4096;
+    private int epochs = 20;
+    private double learningRate = LEARNING_RATE;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private long shuffleSeed = 42;
+    
+    // Progress and cancellation, checked once per iteration or epoch
+    private DoubleConsumer progressListener = progress -> { };
+    private BooleanSupplier cancelled = () -> false;
     
     public LogisticRegressionTrainer(int numFeatures) {
         this.numFeatures = numFeatures;
@@ -24,7 +55,7 @@ public class LogisticRegressionTrainer {
         this.bias = 0.0;
         
         // Initialize weights with small random values
-        Random random = new Random(42); // Fixed seed for reproducibility
+        Random random = new Random(INITIAL_WEIGHT_SEED); // Fixed seed for reproducibility
         for (int i = 0; i < numFeatures; i++) {
             weights[i] = random.nextGaussian() * 0.01;
         }
@@ -39,6 +70,7 @@ public class LogisticRegressionTrainer {
         double prevLoss = Double.MAX_VALUE;
         
         for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            checkCancelled();
             double totalLoss = 0.0;
             double[] weightGradients = new double[numFeatures];
             double biasGradient = 0.0;
@@ -73,6 +105,7 @@ public class LogisticRegressionTrainer {
             bias -= LEARNING_RATE * biasGradient;
             
             // Log progress
+            progressListener.accept((iteration + 1.0) / MAX_ITERATIONS);
             if (iteration % 100 == 0) {
                 System.out.printf("Iteration %d: Loss = %.6f\n", iteration, totalLoss);
             }
@@ -85,6 +118,218 @@ public class LogisticRegressionTrainer {
             prevLoss = totalLoss;
         }
         
+        printWeights();
+    }
+    
+    /**
+     * Adds the settings that determine the result of {@link #train} to {@code checksum},
+     * so saved weights can be told apart from weights trained with other settings.
+     */
+    static void updateChecksum(Checksum checksum) {
+        ByteBuffer settings = ByteBuffer.allocate(Double.BYTES * 2 + Integer.BYTES + Long.BYTES)
+            .putDouble(LEARNING_RATE)
+            .putInt(MAX_ITERATIONS)
+            .putDouble(CONVERGENCE_THRESHOLD)
+            .putLong(INITIAL_WEIGHT_SEED);
+        checksum.update(settings.array(), 0, settings.position());
+    }
+    
+    /**
+     * Adds the settings that determine the result of {@link #trainMiniBatch}, on top of
+     * those of {@link #updateChecksum}. The parallelism is left out: it does not change the result.
+     */
+    void updateMiniBatchChecksum(Checksum checksum) {
+        updateChecksum(checksum);
+        ByteBuffer settings = ByteBuffer.allocate(Integer.BYTES * 2 + Double.BYTES + Long.BYTES)
+            .putInt(batchSize)
+            .putInt(epochs)
+            .putDouble(learningRate)
+            .putLong(shuffleSeed);
+        checksum.update(settings.array(), 0, settings.position());
+    }
+    
+    /**
+     * Train the model with shuffled mini-batches. Results only depend on the data,
+     * the settings and the shuffle seed, not on the number of threads.
+     */
+    public void trainMiniBatch(TrainingSet data) {
+        checkFeatureCount(data.featureCount());
+        System.out.printf("Starting mini-batch training with %d examples (batch %d, up to %d epochs, %d threads)...\n",
+            data.size(), batchSize, epochs, parallelism);
+        
+        runEpochs(data.size(), random -> List.of(data).iterator());
+    }
+    
+    /**
+     * Train the model with shuffled mini-batches, streaming the dataset from disk.
+     * Each epoch visits the row groups in a shuffled order and shuffles the rows
+     * within each group; only one decoded group is held in memory at a time.
+     */
+    public void trainMiniBatch(ColumnarDataset dataset) throws IOException {
+        checkFeatureCount(dataset.featureCount());
+        System.out.printf("Starting streaming mini-batch training with %d examples in %d row groups "
+            + "(batch %d, up to %d epochs, %d threads)...\n",
+            dataset.rowCount(), dataset.rowGroupCount(), batchSize, epochs, parallelism);
+        
+        int[] groups = new int[dataset.rowGroupCount()];
+        for (int g = 0; g < groups.length; g++) {
+            groups[g] = g;
+        }
+        try {
+            runEpochs(dataset.rowCount(), random -> {
+                shuffle(groups, groups.length, random);
+                return Arrays.stream(groups).mapToObj(g -> {
+                    try {
+                        return dataset.rowGroup(g).toTrainingSet();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }).iterator();
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private void checkFeatureCount(int featureCount) {
+        if (featureCount != numFeatures) {
+            throw new IllegalArgumentException("Expected " + numFeatures + " features, got " + featureCount);
+        }
+    }
+    
+    /**
+     * Runs the epochs of mini-batch training over {@code rows} rows in total. For each
+     * epoch, {@code chunks} supplies the data in one or more chunks (drawing on the
+     * shared random generator for any reordering); batches never span two chunks.
+     */
+    private void runEpochs(long rows, Function<Random, Iterator<TrainingSet>> chunks) {
+        Random random = new Random(shuffleSeed);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        int[] order = new int[0];
+        double prevLoss = Double.MAX_VALUE;
+        
+        try {
+            for (int epoch = 0; epoch < epochs; epoch++) {
+                long start = System.nanoTime();
+                double totalLoss = 0.0;
+                
+                for (Iterator<TrainingSet> it = chunks.apply(random); it.hasNext();) {
+                    checkCancelled();
+                    TrainingSet chunk = it.next();
+                    int n = chunk.size();
+                    if (order.length < n) {
+                        order = new int[n];
+                    }
+                    for (int i = 0; i < n; i++) {
+                        order[i] = i;
+                    }
+                    shuffle(order, n, random);
+                    
+                    for (int from = 0; from < n; from += batchSize) {
+                        int to = Math.min(n, from + batchSize);
+                        double[] sums = pool.invoke(new GradientTask(chunk, order, from, to));
+                        
+                        // Average over the batch and step
+                        int batchRows = to - from;
+                        for (int i = 0; i < numFeatures; i++) {
+                            weights[i] -= learningRate * sums[i] / batchRows;
+                        }
+                        bias -= learningRate * sums[numFeatures] / batchRows;
+                        totalLoss += sums[numFeatures + 1];
+                    }
+                }
+                
+                // Loss (MSE) as seen by each batch before its update
+                totalLoss /= rows;
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("Epoch %d: Loss = %.6f (%.0f rows/s)\n", epoch, totalLoss, rows / seconds);
+                progressListener.accept((epoch + 1.0) / epochs);
+                
+                if (Math.abs(prevLoss - totalLoss) < CONVERGENCE_THRESHOLD) {
+                    System.out.println("Converged at epoch " + epoch);
+                    break;
+                }
+                prevLoss = totalLoss;
+            }
+        } finally {
+            pool.shutdown();
+        }
+        
+        printWeights();
+    }
+    
+    private static void shuffle(int[] order, int length, Random random) {
+        for (int i = length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+    }
+    
+    /**
+     * Sums the gradient of rows {@code order[from..to)} under the current weights.
+     * Large ranges are split in halves and the halves' partial sums added in a
+     * fixed order, so the total does not depend on how tasks were scheduled.
+     * Result: weight gradients, then the bias gradient, then the squared error.
+     */
+    private final class GradientTask extends RecursiveTask<double[]> {
+        private static final long serialVersionUID = 1L;
+        
+        private final TrainingSet data;
+        private final int[] order;
+        private final int from;
+        private final int to;
+        
+        GradientTask(TrainingSet data, int[] order, int from, int to) {
+            this.data = data;
+            this.order = order;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected double[] compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                GradientTask left = new GradientTask(data, order, from, mid);
+                left.fork();
+                double[] right = new GradientTask(data, order, mid, to).compute();
+                double[] sums = left.join();
+                for (int i = 0; i < sums.length; i++) {
+                    sums[i] += right[i];
+                }
+                return sums;
+            }
+            
+            double[][] columns = data.columns();
+            double[] labels = data.labels();
+            double[] sums = new double[numFeatures + 2];
+            for (int k = from; k < to; k++) {
+                int row = order[k];
+                double prediction = bias;
+                for (int i = 0; i < numFeatures; i++) {
+                    prediction += weights[i] * columns[i][row];
+                }
+                double error = prediction - labels[row];
+                for (int i = 0; i < numFeatures; i++) {
+                    sums[i] += error * columns[i][row];
+                }
+                sums[numFeatures] += error;
+                sums[numFeatures + 1] += error * error;
+            }
+            return sums;
+        }
+    }
+    
+    private void checkCancelled() {
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("Training cancelled");
+        }
+    }
+    
+    private void printWeights() {
+        progressListener.accept(1.0);
         System.out.println("Training complete!");
         System.out.println("Final weights: ");
         for (int i = 0; i < numFeatures; i++) {
@@ -93,6 +338,50 @@ public class LogisticRegressionTrainer {
         System.out.printf("  bias = %.4f\n", bias);
     }
     
+    /**
+     * Rows per mini-batch (default 4096).
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+    
+    /**
+     * Maximum number of passes over the data (default 20).
+     */
+    public void setEpochs(int epochs) {
+        this.epochs = Math.max(1, epochs);
+    }
+    
+    public void setLearningRate(double learningRate) {
+        this.learningRate = learningRate;
+    }
+    
+    /**
+     * Threads summing each mini-batch's gradient (default: number of cores).
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+    
+    public void setShuffleSeed(long shuffleSeed) {
+        this.shuffleSeed = shuffleSeed;
+    }
+    
+    /**
+     * Receives the fraction of iterations (or epochs) done, from the training thread.
+     */
+    public void setProgressListener(DoubleConsumer progressListener) {
+        this.progressListener = progressListener;
+    }
+    
+    /**
+     * Polled before every iteration (or row group); when it returns true, training
+     * stops with a {@link CancellationException} and the weights are left half-trained.
+     */
+    public void setCancellation(BooleanSupplier cancelled) {
+        this.cancelled = cancelled;
+    }
+    
     /**
      * Predict using current weights (returns raw score, not sigmoid).
      */
@@ -127,4 +416,39 @@ public class LogisticRegressionTrainer {
         }
         return (double) correct / dataset.size();
     }
+    
+    /**
+     * Evaluate model accuracy on a training set.
+     */
+    public double evaluateAccuracy(TrainingSet data) {
+        return (double) countCorrect(data) / data.size();
+    }
+    
+    /**
+     * Evaluate model accuracy on a columnar dataset, one row group at a time.
+     */
+    public double evaluateAccuracy(ColumnarDataset dataset) throws IOException {
+        long correct = 0;
+        for (int g = 0; g < dataset.rowGroupCount(); g++) {
+            correct += countCorrect(dataset.rowGroup(g).toTrainingSet());
+        }
+        return (double) correct / dataset.rowCount();
+    }
+    
+    private int countCorrect(TrainingSet data) {
+        double[][] columns = data.columns();
+        double[] labels = data.labels();
+        int correct = 0;
+        for (int row = 0; row < data.size(); row++) {
+            double prediction = bias;
+            for (int i = 0; i < numFeatures; i++) {
+                prediction += weights[i] * columns[i][row];
+            }
+            double predictedLabel = prediction >= 0 ? 1.0 : -1.0;
+            if (predictedLabel == labels[row]) {
+                correct++;
+            }
+        }
+        return correct;
+    }
 }
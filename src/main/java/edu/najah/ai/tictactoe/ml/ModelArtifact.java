@@ -0,0 +1,168 @@
+package edu.najah.ai.tictactoe.ml;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * Trained weights saved to disk, so the model does not have to be retrained on
+ * every launch. The file is stamped with a key: a CRC32C of the dataset bytes
+ * and the trainer's hyperparameters. A file whose key, format or feature count
+ * does not match is ignored and the model is retrained.
+ * 
+ * Format (big-endian): magic "TTMW", format version byte, key (long), feature
+ * count (int), weights (doubles), bias (double), training accuracy (double).
+ */
+public final class ModelArtifact {
+    
+    static final byte[] MAGIC = {'T', 'T', 'M', 'W'};
+    static final int FORMAT_VERSION = 1;
+    
+    /**
+     * System property overriding where the artifact is stored.
+     */
+    public static final String PATH_PROPERTY = "tictactoe.model.artifact";
+    
+    private final long key;
+    private final double[] weights;
+    private final double bias;
+    private final double accuracy;
+    
+    public ModelArtifact(long key, double[] weights, double bias, double accuracy) {
+        this.key = key;
+        this.weights = weights.clone();
+        this.bias = bias;
+        this.accuracy = accuracy;
+    }
+    
+    /**
+     * Default location: {@code ~/.tictactoe/model.bin}, or the {@value #PATH_PROPERTY} system property.
+     */
+    public static Path defaultPath() {
+        String override = System.getProperty(PATH_PROPERTY);
+        if (override != null && !override.isBlank()) {
+            return Paths.get(override);
+        }
+        return Paths.get(System.getProperty("user.home"), ".tictactoe", "model.bin");
+    }
+    
+    /**
+     * Key for a dataset read from {@code dataset} and trained with the current
+     * {@link LogisticRegressionTrainer} settings.
+     */
+    public static long keyOf(InputStream dataset) throws IOException {
+        CRC32C crc = checksumOf(dataset);
+        LogisticRegressionTrainer.updateChecksum(crc);
+        return crc.getValue();
+    }
+    
+    /**
+     * Key for a dataset read from {@code dataset} and trained with
+     * {@link LogisticRegressionTrainer#trainMiniBatch} by {@code trainer}.
+     */
+    public static long keyOf(InputStream dataset, LogisticRegressionTrainer trainer) throws IOException {
+        CRC32C crc = checksumOf(dataset);
+        trainer.updateMiniBatchChecksum(crc);
+        return crc.getValue();
+    }
+    
+    private static CRC32C checksumOf(InputStream dataset) throws IOException {
+        CRC32C crc = new CRC32C();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = dataset.read(buffer)) > 0) {
+            crc.update(buffer, 0, read);
+        }
+        return crc;
+    }
+    
+    /**
+     * Reads the artifact at {@code path} if it exists and matches {@code key}.
+     * 
+     * @return the artifact, or null if the file is missing, stale or unreadable
+     */
+    public static ModelArtifact load(Path path, long key, int featureCount) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC) || in.readUnsignedByte() != FORMAT_VERSION) {
+                System.err.println("Ignoring unrecognized model artifact: " + path);
+                return null;
+            }
+            long storedKey = in.readLong();
+            if (storedKey != key || in.readInt() != featureCount) {
+                System.out.println("Model artifact is stale (dataset or settings changed): " + path);
+                return null;
+            }
+            double[] weights = new double[featureCount];
+            for (int i = 0; i < featureCount; i++) {
+                weights[i] = in.readDouble();
+            }
+            double bias = in.readDouble();
+            double accuracy = in.readDouble();
+            return new ModelArtifact(storedKey, weights, bias, accuracy);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            System.err.println("Could not read model artifact " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Writes the artifact to a temporary file next to {@code path} and moves it into
+     * place, so a crash or a concurrent reader never sees a partial file.
+     */
+    public void save(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "model", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.write(MAGIC);
+                out.writeByte(FORMAT_VERSION);
+                out.writeLong(key);
+                out.writeInt(weights.length);
+                for (double weight : weights) {
+                    out.writeDouble(weight);
+                }
+                out.writeDouble(bias);
+                out.writeDouble(accuracy);
+            }
+            try {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    public long getKey() {
+        return key;
+    }
+    
+    public double[] getWeights() {
+        return weights.clone();
+    }
+    
+    public double getBias() {
+        return bias;
+    }
+    
+    public double getAccuracy() {
+        return accuracy;
+    }
+}
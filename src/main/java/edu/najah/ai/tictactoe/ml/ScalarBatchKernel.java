@@ -0,0 +1,26 @@
+package edu.najah.ai.tictactoe.ml;
+
+/**
+ * Plain loop kernel, used when the Vector API is not available.
+ */
+final class ScalarBatchKernel implements BatchKernel {
+    
+    @Override
+    public void dot(double[][] columns, int size, double[] weights, double bias, double[] out) {
+        for (int i = 0; i < size; i++) {
+            out[i] = bias;
+        }
+        for (int f = 0; f < columns.length; f++) {
+            double weight = weights[f];
+            double[] column = columns[f];
+            for (int i = 0; i < size; i++) {
+                out[i] += weight * column[i];
+            }
+        }
+    }
+    
+    @Override
+    public String describe() {
+        return "scalar";
+    }
+}
@@ -1,55 +1,212 @@
 package edu.najah.ai.tictactoe.ml;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Runtime-trained ML model for Tic-Tac-Toe evaluation.
  * This is a logistic regression model that trains on startup from a CSV dataset.
- * The model predicts game outcomes based on board features.
+ * The model predicts game outcomes based on board features. Trained weights are
+ * saved as a {@link ModelArtifact} and reused by later launches until the dataset
+ * or the training settings change. {@link #initializeAsync()} does the same on a
+ * background thread and reports progress through a {@link TrainingJob}. Setting
+ * {@value #DATASET_PROPERTY} trains on that dataset file instead, with
+ * {@link LogisticRegressionTrainer#trainMiniBatch} (e.g. on self-play data). There is
+ * one set of weights for every board size, so such a dataset should come from the
+ * board the model will mostly play on.
+ * 
+ * Weights are published as an immutable {@link Snapshot} through a volatile field,
+ * so evaluating threads always see a consistent set. Each snapshot also compiles the
+ * weights into a table of scaled scores for every feature tuple a 3x3 board can
+ * produce, which {@link #predictScaled(int[])} reads instead of computing a dot product.
+ * Blocks of positions ({@link FeatureBlock}) are scored together by a batch kernel,
+ * which uses the Vector API when it was compiled in (the {@code vector} profile) and
+ * the JVM runs with {@code --add-modules jdk.incubator.vector}.
  */
 public class TrainedModel {
     
-    private static double[] weights;
-    private static double bias;
-    private static boolean isTrained = false;
+    /**
+     * Factor applied to the raw model output before it is truncated to an int search score.
+     */
+    public static final int SCORE_SCALE = 10;
+    
+    /**
+     * System property naming a dataset file to train on with mini-batches instead of
+     * the bundled dataset: CSV, or a {@link ColumnarDataset} when it ends in ".ttds",
+     * which is streamed from disk.
+     */
+    public static final String DATASET_PROPERTY = "tictactoe.model.dataset";
+    
+    /**
+     * System properties overriding the mini-batch size and epoch count used with {@value #DATASET_PROPERTY}.
+     */
+    public static final String BATCH_SIZE_PROPERTY = "tictactoe.model.batchSize";
+    public static final String EPOCHS_PROPERTY = "tictactoe.model.epochs";
     
     // Dataset path in resources
     private static final String DATASET_PATH = "/dataset/tictactoe_dataset.csv";
+    private static final String COLUMNAR_EXTENSION = ".ttds";
     private static final int NUM_FEATURES = 6;
     
+    // Number of values each feature takes in the score table (3x3 ranges);
+    // tuples outside these ranges fall back to the dot product
+    private static final int[] TABLE_DIMENSIONS = {
+        6, // f1_X_count 0-5
+        6, // f2_O_count 0-5
+        9, // f3_X_almost_win 0-8
+        9, // f4_O_almost_win 0-8
+        2, // f5_X_center 0-1
+        5  // f6_X_corners 0-4
+    };
+    
+    private static final String VECTOR_KERNEL = "edu.najah.ai.tictactoe.ml.VectorBatchKernel";
+    private static final BatchKernel KERNEL = loadKernel();
+    
+    private static volatile Snapshot model;
+    private static final AtomicLong versions = new AtomicLong();
+    
+    // Background initialization (initializeAsync)
+    private static final ExecutorService TRAINING_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "model-training");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Object TRAINING_LOCK = new Object();
+    private static TrainingJob trainingJob; // guarded by TrainedModel.class
+    
+    /**
+     * Immutable set of trained parameters and the score table compiled from them.
+     */
+    private static final class Snapshot {
+        final double[] weights;
+        final double bias;
+        final long version;
+        final int[] scoreTable;
+        
+        Snapshot(double[] weights, double bias) {
+            this.weights = weights.clone();
+            this.bias = bias;
+            this.version = versions.incrementAndGet();
+            this.scoreTable = compile();
+        }
+        
+        private int[] compile() {
+            int size = 1;
+            for (int dimension : TABLE_DIMENSIONS) {
+                size *= dimension;
+            }
+            int[] table = new int[size];
+            int[] features = new int[NUM_FEATURES];
+            for (int index = 0; index < size; index++) {
+                // Decode the index into its tuple, last feature varying fastest
+                int rest = index;
+                for (int f = NUM_FEATURES - 1; f >= 0; f--) {
+                    features[f] = rest % TABLE_DIMENSIONS[f];
+                    rest /= TABLE_DIMENSIONS[f];
+                }
+                table[index] = scaledDot(features);
+            }
+            return table;
+        }
+        
+        int scaledDot(int[] features) {
+            double score = bias;
+            for (int i = 0; i < NUM_FEATURES; i++) {
+                score += weights[i] * features[i];
+            }
+            return (int) (score * SCORE_SCALE);
+        }
+    }
+    
     /**
-     * Initialize and train the model from the dataset.
+     * Initialize the model from the saved artifact, or train it from the dataset
+     * (and save the artifact) when there is no up-to-date one.
      * This should be called once at application startup.
      */
     public static void initialize() {
-        if (isTrained) {
+        if (model != null) {
             System.out.println("Model already trained.");
             return;
         }
-        
+        run(new TrainingJob());
+    }
+    
+    /**
+     * Like {@link #initialize()}, but on a background thread so the caller does not
+     * wait for training. Until the job publishes weights, {@link #isTrained()} is
+     * false. Returns the running job if there is one.
+     */
+    public static synchronized TrainingJob initializeAsync() {
+        if (trainingJob == null || (trainingJob.isDone() && model == null)) {
+            TrainingJob job = new TrainingJob();
+            trainingJob = job;
+            TRAINING_EXECUTOR.execute(() -> run(job));
+        }
+        return trainingJob;
+    }
+    
+    private static void run(TrainingJob job) {
+        // One initialization at a time; later ones find the published weights
+        synchronized (TRAINING_LOCK) {
+            try {
+                if (model == null) {
+                    loadOrTrain(job);
+                }
+            } catch (CancellationException e) {
+                System.out.println("Model training cancelled");
+                job.finishCancelled();
+            } finally {
+                job.finish();
+            }
+        }
+    }
+    
+    private static void loadOrTrain(TrainingJob job) {
         try {
-            System.out.println("Loading dataset from: " + DATASET_PATH);
-            List<DatasetLoader.DataLine> dataset = DatasetLoader.loadDataset(DATASET_PATH);
-            
-            if (dataset.isEmpty()) {
-                throw new RuntimeException("Dataset is empty! Cannot train model.");
+            LogisticRegressionTrainer trainer = new LogisticRegressionTrainer(NUM_FEATURES);
+            trainer.setProgressListener(job::setProgress);
+            trainer.setCancellation(job::isCancelled);
+            Path datasetFile = datasetFile();
+            if (datasetFile != null) {
+                configureMiniBatch(trainer);
             }
             
-            // Train the model
-            LogisticRegressionTrainer trainer = new LogisticRegressionTrainer(NUM_FEATURES);
-            trainer.train(dataset);
+            // Reuse saved weights when the dataset and trainer settings are unchanged
+            long key = datasetFile == null ? datasetKey() : datasetKey(datasetFile, trainer);
+            Path artifactPath = ModelArtifact.defaultPath();
+            ModelArtifact artifact = ModelArtifact.load(artifactPath, key, NUM_FEATURES);
+            if (artifact != null) {
+                setWeights(artifact.getWeights(), artifact.getBias());
+                System.out.println("Loaded trained weights from " + artifactPath);
+                System.out.printf("Training accuracy: %.2f%%\n", artifact.getAccuracy() * 100);
+                System.out.println("Batch inference: " + getBatchKernel());
+                return;
+            }
             
-            // Get trained parameters
-            weights = trainer.getWeights();
-            bias = trainer.getBias();
+            // Train the model, then publish the trained parameters
+            double accuracy = datasetFile == null ? train(trainer) : trainMiniBatch(trainer, datasetFile);
+            setWeights(trainer.getWeights(), trainer.getBias());
             
-            // Evaluate accuracy
-            double accuracy = trainer.evaluateAccuracy(dataset);
             System.out.printf("Training accuracy: %.2f%%\n", accuracy * 100);
+            System.out.println("Batch inference: " + getBatchKernel());
             
-            isTrained = true;
+            try {
+                new ModelArtifact(key, trainer.getWeights(), trainer.getBias(), accuracy).save(artifactPath);
+                System.out.println("Saved trained weights to " + artifactPath);
+            } catch (IOException e) {
+                System.err.println("Could not save trained weights: " + e.getMessage());
+            }
             
+        } catch (CancellationException e) {
+            throw e;
         } catch (IOException e) {
             System.err.println("Error loading dataset: " + e.getMessage());
             e.printStackTrace();
@@ -62,20 +219,98 @@ public class TrainedModel {
         }
     }
     
+    /**
+     * Trains on the bundled dataset and returns the training accuracy.
+     */
+    private static double train(LogisticRegressionTrainer trainer) throws IOException {
+        System.out.println("Loading dataset from: " + DATASET_PATH);
+        List<DatasetLoader.DataLine> dataset = DatasetLoader.loadDataset(DATASET_PATH);
+        
+        if (dataset.isEmpty()) {
+            throw new RuntimeException("Dataset is empty! Cannot train model.");
+        }
+        
+        trainer.train(dataset);
+        return trainer.evaluateAccuracy(dataset);
+    }
+    
+    /**
+     * Trains on the {@value #DATASET_PROPERTY} file with mini-batches and returns the training accuracy.
+     */
+    private static double trainMiniBatch(LogisticRegressionTrainer trainer, Path datasetFile) throws IOException {
+        if (datasetFile.getFileName().toString().endsWith(COLUMNAR_EXTENSION)) {
+            try (ColumnarDataset dataset = ColumnarDataset.open(datasetFile)) {
+                if (dataset.rowCount() == 0) {
+                    throw new RuntimeException("Dataset is empty! Cannot train model.");
+                }
+                trainer.trainMiniBatch(dataset);
+                return trainer.evaluateAccuracy(dataset);
+            }
+        }
+        TrainingSet data = TrainingSet.of(DatasetLoader.loadDataset(datasetFile));
+        if (data.size() == 0) {
+            throw new RuntimeException("Dataset is empty! Cannot train model.");
+        }
+        trainer.trainMiniBatch(data);
+        return trainer.evaluateAccuracy(data);
+    }
+    
+    private static Path datasetFile() {
+        String file = System.getProperty(DATASET_PROPERTY);
+        return file == null || file.isBlank() ? null : Paths.get(file);
+    }
+    
+    private static void configureMiniBatch(LogisticRegressionTrainer trainer) {
+        Integer batchSize = Integer.getInteger(BATCH_SIZE_PROPERTY);
+        if (batchSize != null) {
+            trainer.setBatchSize(batchSize);
+        }
+        Integer epochs = Integer.getInteger(EPOCHS_PROPERTY);
+        if (epochs != null) {
+            trainer.setEpochs(epochs);
+        }
+    }
+    
+    private static long datasetKey() throws IOException {
+        InputStream is = TrainedModel.class.getResourceAsStream(DATASET_PATH);
+        if (is == null) {
+            throw new IOException("Dataset file not found: " + DATASET_PATH);
+        }
+        try (InputStream in = is) {
+            return ModelArtifact.keyOf(in);
+        }
+    }
+    
+    private static long datasetKey(Path datasetFile, LogisticRegressionTrainer trainer) throws IOException {
+        try (InputStream in = Files.newInputStream(datasetFile)) {
+            return ModelArtifact.keyOf(in, trainer);
+        }
+    }
+    
     /**
      * Initialize with reasonable default weights if training fails.
      */
     private static void initializeDefaultWeights() {
         System.out.println("Using default weights (no training)");
-        weights = new double[NUM_FEATURES];
+        double[] weights = new double[NUM_FEATURES];
         weights[0] = 1.0;   // f1_X_count
         weights[1] = -1.0;  // f2_O_count
         weights[2] = 2.0;   // f3_X_almost_win
         weights[3] = -2.0;  // f4_O_almost_win
         weights[4] = 0.5;   // f5_X_center
         weights[5] = 0.3;   // f6_X_corners
-        bias = 0.0;
-        isTrained = true;
+        setWeights(weights, 0.0);
+    }
+    
+    /**
+     * Replaces the model parameters and rebuilds the score table. Searches already
+     * running keep the previous snapshot until their next evaluation.
+     */
+    public static void setWeights(double[] weights, double bias) {
+        if (weights.length != NUM_FEATURES) {
+            throw new IllegalArgumentException("Expected " + NUM_FEATURES + " weights, got " + weights.length);
+        }
+        model = new Snapshot(weights, bias);
     }
     
     /**
@@ -86,24 +321,125 @@ public class TrainedModel {
      * @return evaluation score
      */
     public static double predict(double[] features) {
-        if (!isTrained) {
-            throw new IllegalStateException("Model not initialized! Call TrainedModel.initialize() first.");
-        }
+        Snapshot snapshot = trainedModel();
         
         if (features.length != NUM_FEATURES) {
             throw new IllegalArgumentException("Feature length mismatch. Expected " + NUM_FEATURES + ", got " + features.length);
         }
         
-        double score = bias;
+        double score = snapshot.bias;
         for (int i = 0; i < features.length; i++) {
-            score += weights[i] * features[i];
+            score += snapshot.weights[i] * features[i];
         }
         
         // Return raw score
         return score;
     }
     
+    /**
+     * Returns {@code (int) (predict(features) * SCORE_SCALE)} for integer features,
+     * from the score table when the tuple is in its range.
+     * 
+     * @param features integer features from {@link FeatureExtractor}
+     * @return scaled evaluation score, positive when X is winning
+     */
+    public static int predictScaled(int[] features) {
+        Snapshot snapshot = trainedModel();
+        int index = 0;
+        for (int i = 0; i < NUM_FEATURES; i++) {
+            int value = features[i];
+            int dimension = TABLE_DIMENSIONS[i];
+            if (Integer.compareUnsigned(value, dimension) >= 0) {
+                return snapshot.scaledDot(features); // larger boards
+            }
+            index = index * dimension + value;
+        }
+        return snapshot.scoreTable[index];
+    }
+    
+    /**
+     * Number of the current weights; increases every time weights are published, 0 before the first.
+     */
+    public static long getVersion() {
+        Snapshot snapshot = model;
+        return snapshot == null ? 0 : snapshot.version;
+    }
+    
+    /**
+     * Raw scores of every position in the block, like {@link #predict(double[])} on each row.
+     * 
+     * @param out receives one score per row
+     */
+    public static void predictBatch(FeatureBlock block, double[] out) {
+        Snapshot snapshot = trainedModel();
+        KERNEL.dot(block.columns(), block.size(), snapshot.weights, snapshot.bias, out);
+    }
+    
+    /**
+     * Scaled scores of every position in the block, like {@link #predictScaled(int[])}
+     * on each row. Blocks that fit the score table are looked up, others go through
+     * the batch kernel.
+     * 
+     * @param out receives one score per row
+     */
+    public static void predictScaled(FeatureBlock block, int[] out) {
+        Snapshot snapshot = trainedModel();
+        int size = block.size();
+        double[][] columns = block.columns();
+        if (fitsTable(columns, size)) {
+            for (int i = 0; i < size; i++) {
+                int index = 0;
+                for (int f = 0; f < NUM_FEATURES; f++) {
+                    index = index * TABLE_DIMENSIONS[f] + (int) columns[f][i];
+                }
+                out[i] = snapshot.scoreTable[index];
+            }
+            return;
+        }
+        double[] scores = block.scores();
+        KERNEL.dot(columns, size, snapshot.weights, snapshot.bias, scores);
+        for (int i = 0; i < size; i++) {
+            out[i] = (int) (scores[i] * SCORE_SCALE);
+        }
+    }
+    
+    private static boolean fitsTable(double[][] columns, int size) {
+        for (int f = 0; f < NUM_FEATURES; f++) {
+            double[] column = columns[f];
+            for (int i = 0; i < size; i++) {
+                if (column[i] >= TABLE_DIMENSIONS[f]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Kernel used for batch inference, e.g. "scalar" or "vector (4 lanes)".
+     */
+    public static String getBatchKernel() {
+        return KERNEL.describe();
+    }
+    
+    private static BatchKernel loadKernel() {
+        try {
+            return (BatchKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Not compiled in, or the incubator module is not enabled
+            return new ScalarBatchKernel();
+        }
+    }
+    
+    private static Snapshot trainedModel() {
+        Snapshot snapshot = model;
+        if (snapshot == null) {
+            throw new IllegalStateException("Model not initialized! Call TrainedModel.initialize() first.");
+        }
+        return snapshot;
+    }
+    
     public static boolean isTrained() {
-        return isTrained;
+        return model != null;
     }
 }
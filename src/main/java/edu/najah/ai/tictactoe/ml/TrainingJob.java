@@ -0,0 +1,83 @@
+package edu.najah.ai.tictactoe.ml;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Handle on a model initialization started by {@link TrainedModel#initializeAsync()}:
+ * its progress (0 to 1), a way to cancel it, and a future that completes when the
+ * weights are published, or exceptionally with a {@link CancellationException}
+ * when the job was cancelled before that.
+ */
+public final class TrainingJob {
+    
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private final List<DoubleConsumer> listeners = new CopyOnWriteArrayList<>();
+    private volatile double progress;
+    private volatile boolean cancelRequested;
+    
+    TrainingJob() {
+    }
+    
+    public double getProgress() {
+        return progress;
+    }
+    
+    /**
+     * Calls {@code listener} with the current progress and then on every update,
+     * from the training thread, until the job is done.
+     */
+    public void addProgressListener(DoubleConsumer listener) {
+        listeners.add(listener);
+        listener.accept(progress);
+        if (isDone()) {
+            listeners.remove(listener);
+        }
+    }
+    
+    /**
+     * Asks the training to stop at its next iteration; no weights are published.
+     * Has no effect once the job is done.
+     */
+    public void cancel() {
+        cancelRequested = true;
+    }
+    
+    public boolean isCancelled() {
+        return cancelRequested;
+    }
+    
+    public boolean isDone() {
+        return completion.isDone();
+    }
+    
+    /**
+     * Completes when the job is done; the returned future cannot complete the job.
+     */
+    public CompletableFuture<Void> completion() {
+        return completion.copy();
+    }
+    
+    void setProgress(double progress) {
+        this.progress = progress;
+        for (DoubleConsumer listener : listeners) {
+            listener.accept(progress);
+        }
+    }
+    
+    void finish() {
+        if (!completion.isDone()) {
+            setProgress(1.0);
+            completion.complete(null);
+        }
+        listeners.clear();
+    }
+    
+    void finishCancelled() {
+        completion.completeExceptionally(new CancellationException("Model training cancelled"));
+        listeners.clear();
+    }
+}
@@ -0,0 +1,65 @@
+package edu.najah.ai.tictactoe.ml;
+
+import java.util.List;
+
+/**
+ * Labelled training rows stored column by column in primitive arrays, so large
+ * datasets cost 8 bytes per value instead of one boxed row object each.
+ */
+public final class TrainingSet {
+    
+    private final double[][] columns; // columns[feature][row]
+    private final double[] labels;    // +1 for X wins, -1 for O wins
+    
+    /**
+     * @param columns one array per feature, all as long as {@code labels}
+     * @param labels label of each row
+     */
+    public TrainingSet(double[][] columns, double[] labels) {
+        for (double[] column : columns) {
+            if (column.length != labels.length) {
+                throw new IllegalArgumentException("Column has " + column.length + " rows, expected " + labels.length);
+            }
+        }
+        this.columns = columns;
+        this.labels = labels;
+    }
+    
+    public static TrainingSet of(List<DatasetLoader.DataLine> dataset) {
+        int features = dataset.isEmpty() ? 0 : dataset.get(0).features.length;
+        double[][] columns = new double[features][dataset.size()];
+        double[] labels = new double[dataset.size()];
+        for (int row = 0; row < dataset.size(); row++) {
+            DatasetLoader.DataLine line = dataset.get(row);
+            for (int f = 0; f < features; f++) {
+                columns[f][row] = line.features[f];
+            }
+            labels[row] = line.label;
+        }
+        return new TrainingSet(columns, labels);
+    }
+    
+    public int size() {
+        return labels.length;
+    }
+    
+    public int featureCount() {
+        return columns.length;
+    }
+    
+    public double feature(int feature, int row) {
+        return columns[feature][row];
+    }
+    
+    public double label(int row) {
+        return labels[row];
+    }
+    
+    double[][] columns() {
+        return columns;
+    }
+    
+    double[] labels() {
+        return labels;
+    }
+}
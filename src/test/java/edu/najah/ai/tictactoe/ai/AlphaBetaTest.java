@@ -0,0 +1,156 @@
+package edu.najah.ai.tictactoe.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import edu.najah.ai.tictactoe.game.Board;
+import edu.najah.ai.tictactoe.game.Move;
+import edu.najah.ai.tictactoe.game.Player;
+
+public class AlphaBetaTest {
+    
+    @Test
+    public void lazySmpOnLargeBoardReturnsLegalMove() {
+        AlphaBeta engine = new AlphaBeta(new ClassicalEvaluator());
+        engine.setThreadCount(4);
+        engine.setParallelMode(ParallelMode.LAZY_SMP);
+        
+        Board board = new Board(7, 7, 4);
+        board.makeMove(3, 3, Player.X);
+        long hash = board.getHash();
+        
+        for (int run = 0; run < 5; run++) {
+            SearchResult result = engine.search(board, Player.O, Difficulty.HARD, 4);
+            Move best = result.getBestMove();
+            assertNotNull(best);
+            assertTrue(board.isValidMove(best.getRow(), best.getCol()));
+            assertEquals(hash, board.getHash(), "search must leave the board as it found it");
+        }
+    }
+    
+    @Test
+    public void lowerThreadCountIsHonored() {
+        AlphaBeta engine = new AlphaBeta(new ClassicalEvaluator());
+        engine.setParallelMode(ParallelMode.ROOT_SPLIT);
+        Board board = new Board(7, 7, 4);
+        board.makeMove(3, 3, Player.X);
+        
+        engine.setThreadCount(4);
+        engine.search(board, Player.O, Difficulty.HARD, 3);
+        
+        engine.setThreadCount(2);
+        long[] threadNodes = engine.search(board, Player.O, Difficulty.HARD, 3).getThreadNodes();
+        assertEquals(2, threadNodes.length);
+        for (long nodes : threadNodes) {
+            assertTrue(nodes > 0, "every thread should have searched part of the root");
+        }
+    }
+    
+    @Test
+    public void rootSplitMatchesSerialSearch() {
+        Board board = new Board(7, 7, 4);
+        board.makeMove(3, 3, Player.X);
+        board.makeMove(2, 3, Player.O);
+        board.makeMove(4, 4, Player.X);
+        
+        Move serial = new AlphaBeta(new ClassicalEvaluator()).search(board, Player.O, Difficulty.HARD, 3).getBestMove();
+        for (int threads : new int[] {1, 2, 4}) {
+            for (int run = 0; run < 3; run++) {
+                AlphaBeta engine = new AlphaBeta(new ClassicalEvaluator());
+                engine.setThreadCount(threads);
+                engine.setParallelMode(ParallelMode.ROOT_SPLIT);
+                Move best = engine.search(board, Player.O, Difficulty.HARD, 3).getBestMove();
+                assertEquals(serial, best, threads + " threads, run " + run);
+                assertEquals(serial.getScore(), best.getScore(), threads + " threads, run " + run);
+            }
+        }
+    }
+    
+    @Test
+    public void moveOrderingGainsCutOffs() {
+        Board board = new Board(5, 5, 4);
+        board.makeMove(2, 2, Player.X);
+        board.makeMove(1, 2, Player.O);
+        board.makeMove(3, 3, Player.X);
+        
+        AlphaBeta ordered = new AlphaBeta(new ClassicalEvaluator());
+        AlphaBeta unordered = new AlphaBeta(new ClassicalEvaluator());
+        unordered.setMoveOrdering(false);
+        SearchResult withOrdering = ordered.search(board, Player.O, Difficulty.HARD, 4);
+        SearchResult withoutOrdering = unordered.search(board, Player.O, Difficulty.HARD, 4);
+        
+        assertEquals(withoutOrdering.getBestMove().getScore(), withOrdering.getBestMove().getScore());
+        // Good moves first cut off sooner, so fewer nodes and fewer cut-offs are needed...
+        assertTrue(withOrdering.getNodesEvaluated() < withoutOrdering.getNodesEvaluated());
+        assertTrue(withOrdering.getPruneCount() < withoutOrdering.getPruneCount());
+        // ...and a larger share of the nodes searched end in one
+        double orderedRate = (double) withOrdering.getPruneCount() / withOrdering.getNodesEvaluated();
+        double unorderedRate = (double) withoutOrdering.getPruneCount() / withoutOrdering.getNodesEvaluated();
+        assertTrue(orderedRate > unorderedRate, orderedRate + " vs " + unorderedRate);
+    }
+    
+    @Test
+    public void iterativeDeepeningWithoutBudgetMatchesFixedDepth() {
+        Board board = new Board(7, 7, 4);
+        board.makeMove(3, 3, Player.X);
+        AlphaBeta deepening = new AlphaBeta(new ClassicalEvaluator());
+        deepening.setSearchMode(SearchMode.ITERATIVE_DEEPENING);
+        
+        SearchResult result = deepening.search(board, Player.O, Difficulty.HARD, 4);
+        Move fixed = new AlphaBeta(new ClassicalEvaluator()).search(board, Player.O, Difficulty.HARD, 4).getBestMove();
+        assertEquals(4, result.getCompletedDepth());
+        assertEquals(fixed.getScore(), result.getBestMove().getScore());
+    }
+    
+    @Test
+    public void nodeBudgetStopsAtTheLastCompletedIteration() {
+        Board board = new Board(7, 7, 4);
+        board.makeMove(3, 3, Player.X);
+        AlphaBeta engine = new AlphaBeta(new ClassicalEvaluator());
+        engine.setSearchMode(SearchMode.ITERATIVE_DEEPENING);
+        engine.setNodeBudget(2000);
+        
+        SearchResult result = engine.search(board, Player.O, Difficulty.HARD, 5);
+        int depth = result.getCompletedDepth();
+        assertTrue(depth < 5, "depth " + depth);
+        assertTrue(result.getNodesEvaluated() <= 2000 + SearchControl.CHECK_INTERVAL, "nodes " + result.getNodesEvaluated());
+        Move best = result.getBestMove();
+        assertTrue(board.isValidMove(best.getRow(), best.getCol()));
+        
+        // The move and score come from the last iteration that completed
+        Move fixed = new AlphaBeta(new ClassicalEvaluator()).search(board, Player.O, Difficulty.HARD, depth).getBestMove();
+        assertEquals(fixed.getScore(), best.getScore());
+    }
+    
+    @Test
+    public void firstIterationCompletesWhateverTheBudget() {
+        Board board = new Board(7, 7, 4);
+        board.makeMove(3, 3, Player.X);
+        AlphaBeta engine = new AlphaBeta(new ClassicalEvaluator());
+        engine.setSearchMode(SearchMode.ITERATIVE_DEEPENING);
+        engine.setNodeBudget(1);
+        engine.setTimeBudgetMillis(1);
+        
+        SearchResult result = engine.search(board, Player.O, Difficulty.HARD);
+        // The budget is checked every CHECK_INTERVAL nodes, so the 1-ply iteration may finish too
+        assertTrue(result.getCompletedDepth() <= 1, "depth " + result.getCompletedDepth());
+        assertNotNull(result.getBestMove());
+    }
+    
+    @Test
+    public void timeBudgetEndsTheSearch() {
+        Board board = new Board(7, 7, 4);
+        board.makeMove(3, 3, Player.X);
+        AlphaBeta engine = new AlphaBeta(new ClassicalEvaluator());
+        engine.setSearchMode(SearchMode.ITERATIVE_DEEPENING);
+        engine.setTimeBudgetMillis(50);
+        
+        SearchResult result = engine.search(board, Player.O, Difficulty.HARD); // depth 9 would take minutes
+        assertTrue(result.getCompletedDepth() < Difficulty.HARD.getDepth());
+        assertTrue(result.getElapsedMillis() < 2000, result.getElapsedMillis() + " ms");
+        assertNotNull(result.getBestMove());
+    }
+}
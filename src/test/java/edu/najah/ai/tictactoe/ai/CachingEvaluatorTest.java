@@ -0,0 +1,64 @@
+package edu.najah.ai.tictactoe.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import edu.najah.ai.tictactoe.game.Board;
+import edu.najah.ai.tictactoe.game.Player;
+
+public class CachingEvaluatorTest {
+    
+    /**
+     * Scores every position with its version, like a model whose weights get replaced.
+     */
+    private static final class VersionedEvaluator implements Evaluator {
+        long version;
+        
+        @Override
+        public int evaluate(Board board, Player maximizingPlayer) {
+            return (int) version * 10;
+        }
+        
+        @Override
+        public long getVersion() {
+            return version;
+        }
+    }
+    
+    @Test
+    public void reportsTheDelegateVersion() {
+        VersionedEvaluator delegate = new VersionedEvaluator();
+        CachingEvaluator cache = new CachingEvaluator(delegate);
+        assertEquals(0, cache.getVersion());
+        
+        delegate.version = 3;
+        assertEquals(3, cache.getVersion());
+    }
+    
+    @Test
+    public void newVersionIsNotAnsweredFromTheCache() {
+        VersionedEvaluator delegate = new VersionedEvaluator();
+        CachingEvaluator cache = new CachingEvaluator(delegate);
+        Board board = new Board();
+        board.makeMove(1, 1, Player.X);
+        assertEquals(0, cache.evaluate(board, Player.X));
+        assertEquals(0, cache.evaluate(board, Player.X));
+        
+        delegate.version = 1;
+        assertEquals(10, cache.evaluate(board, Player.X));
+    }
+    
+    @Test
+    public void searchSeesTheNewVersion() {
+        VersionedEvaluator delegate = new VersionedEvaluator();
+        AlphaBeta engine = new AlphaBeta(new CachingEvaluator(delegate));
+        Board board = new Board(7, 7, 4);
+        board.makeMove(3, 3, Player.X);
+        int before = engine.search(board, Player.O, Difficulty.HARD, 2).getBestMove().getScore();
+        
+        delegate.version = 5;
+        int after = engine.search(board, Player.O, Difficulty.HARD, 2).getBestMove().getScore();
+        assertEquals(before + 50, after, "scores from the old version must not come from the transposition table");
+    }
+}
@@ -0,0 +1,39 @@
+package edu.najah.ai.tictactoe.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import edu.najah.ai.tictactoe.game.Board;
+import edu.najah.ai.tictactoe.game.Player;
+
+public class MoveOrdererTest {
+    
+    @Test
+    public void killersCarryOverToTheNextSearchOfTheGame() {
+        Board board = new Board(5, 5, 4);
+        board.makeMove(2, 2, Player.X);
+        board.makeMove(1, 2, Player.O);
+        MoveOrderer orderer = new MoveOrderer(board.getGeometry().getCellCount());
+        
+        // Search from 2 moves in: cell 0 gets the larger history score, cell 24 the killer slot one ply down
+        MoveOrderer first = orderer.forThread(board.getMoveCount());
+        first.recordCutoff(Player.O, 0, 0, 5);
+        first.recordCutoff(Player.O, 24, 1, 1);
+        first.keepKillers();
+        
+        board.makeMove(3, 3, Player.X);
+        assertEquals(24, firstMove(orderer.forThread(board.getMoveCount()), board));
+        
+        orderer.clear();
+        first.recordCutoff(Player.O, 0, 0, 5);
+        assertEquals(0, firstMove(orderer.forThread(board.getMoveCount()), board), "clear() must drop the kept killers");
+    }
+    
+    private static int firstMove(MoveOrderer orderer, Board board) {
+        int[] moves = new int[board.getGeometry().getCellCount()];
+        int count = board.getAvailableMoves(moves);
+        orderer.order(board, moves, count, Player.O, 0, TranspositionTable.NO_MOVE);
+        return moves[0];
+    }
+}
@@ -0,0 +1,81 @@
+package edu.najah.ai.tictactoe.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import edu.najah.ai.tictactoe.game.Board;
+import edu.najah.ai.tictactoe.game.Move;
+import edu.najah.ai.tictactoe.game.Player;
+
+public class PondererTest {
+    
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    
+    @AfterEach
+    public void shutDown() {
+        executor.shutdownNow();
+    }
+    
+    private static Board position() {
+        Board board = new Board(7, 7, 4);
+        board.makeMove(3, 3, Player.X);
+        board.makeMove(3, 4, Player.O);
+        return board;
+    }
+    
+    /**
+     * Fails unless the executor's only thread is free again, i.e. no ponder search is still running.
+     */
+    private void assertIdle() throws Exception {
+        executor.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+    
+    @Test
+    public void stopAfterTakingARunningSearchLeavesNothingRunning() throws Exception {
+        AlphaBeta engine = new AlphaBeta(new ClassicalEvaluator());
+        Ponderer ponderer = new Ponderer(engine);
+        ponderer.setBudgetMillis(60_000);
+        ponderer.setCandidates(1);
+        Board board = position();
+        
+        // The reply pondered first is the best one by the shallow prediction search
+        Move predicted = engine.search(new Board(board), Player.X, Difficulty.HARD, 2).getMoveScores().stream()
+            .max(Comparator.comparingInt(Move::getScore)).get();
+        ponderer.start(board, Player.X, Player.O, Difficulty.HARD, 7, executor);
+        Thread.sleep(100);
+        
+        board.makeMove(predicted.getRow(), predicted.getCol(), Player.X);
+        CompletableFuture<SearchResult> answer = ponderer.take(board);
+        assertNotNull(answer, "the predicted reply should be searched while the opponent thinks");
+        ponderer.stop();
+        
+        assertIdle();
+        assertNull(answer.get(), "a search cut short by stop() has no result");
+        assertEquals(0, ponderer.getHits());
+        assertEquals(1, ponderer.getMisses());
+    }
+    
+    @Test
+    public void takingAnUnpredictedMoveStopsPondering() throws Exception {
+        Ponderer ponderer = new Ponderer(new AlphaBeta(new ClassicalEvaluator()));
+        ponderer.setBudgetMillis(60_000);
+        Board board = position();
+        ponderer.start(board, Player.X, Player.O, Difficulty.HARD, 7, executor);
+        Thread.sleep(100);
+        
+        board.makeMove(6, 6, Player.X);
+        ponderer.take(board);
+        ponderer.stop();
+        assertIdle();
+    }
+}
@@ -0,0 +1,69 @@
+package edu.najah.ai.tictactoe.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTest {
+    
+    private static final long A = 0x1111_0000_0000_0010L;
+    private static final long B = 0x2222_0000_0000_0020L;
+    private static final long C = 0x3333_0000_0000_0030L;
+    private static final long D = 0x4444_0000_0000_0040L;
+    
+    @Test
+    public void entriesUnpackToWhatWasStored() {
+        TranspositionTable table = new TranspositionTable(16);
+        table.store(A, -123_456, 17, TranspositionTable.UPPER_BOUND, 48);
+        table.store(B, Integer.MAX_VALUE, 0, TranspositionTable.EXACT, TranspositionTable.NO_MOVE);
+        
+        long a = table.probe(A);
+        assertEquals(-123_456, TranspositionTable.scoreOf(a));
+        assertEquals(17, TranspositionTable.depthOf(a));
+        assertEquals(TranspositionTable.UPPER_BOUND, TranspositionTable.flagOf(a));
+        assertEquals(48, TranspositionTable.moveOf(a));
+        
+        long b = table.probe(B);
+        assertEquals(Integer.MAX_VALUE, TranspositionTable.scoreOf(b));
+        assertEquals(0, TranspositionTable.depthOf(b));
+        assertEquals(TranspositionTable.EXACT, TranspositionTable.flagOf(b));
+        assertEquals(TranspositionTable.NO_MOVE, TranspositionTable.moveOf(b));
+        
+        assertEquals(0L, table.probe(C));
+        table.clear();
+        assertEquals(0L, table.probe(A));
+    }
+    
+    @Test
+    public void depthPreferredSlotYieldsOnlyToDeeperOrNewerEntries() {
+        TranspositionTable table = new TranspositionTable(1); // the even test keys share bucket 0
+        table.store(A, 1, 5, TranspositionTable.EXACT, 0);
+        table.store(B, 2, 2, TranspositionTable.EXACT, 1);
+        assertNotEquals(0L, table.probe(A));
+        assertNotEquals(0L, table.probe(B));
+        
+        // Shallower entries take the always-replace slot
+        table.store(C, 3, 1, TranspositionTable.EXACT, 2);
+        assertNotEquals(0L, table.probe(A));
+        assertEquals(0L, table.probe(B));
+        assertEquals(3, TranspositionTable.scoreOf(table.probe(C)));
+        
+        // A deeper one takes the depth-preferred slot
+        table.store(D, 4, 6, TranspositionTable.EXACT, 3);
+        assertEquals(0L, table.probe(A));
+        assertEquals(6, TranspositionTable.depthOf(table.probe(D)));
+        
+        // The same position is updated in place even if shallower
+        table.store(D, 5, 1, TranspositionTable.LOWER_BOUND, 4);
+        assertEquals(5, TranspositionTable.scoreOf(table.probe(D)));
+        assertNotEquals(0L, table.probe(C));
+        
+        // After a new search, old entries give way to any depth
+        table.store(A, 6, 8, TranspositionTable.EXACT, 5);
+        table.newSearch();
+        table.store(B, 7, 0, TranspositionTable.EXACT, 6);
+        assertEquals(0L, table.probe(A));
+        assertEquals(7, TranspositionTable.scoreOf(table.probe(B)));
+    }
+}
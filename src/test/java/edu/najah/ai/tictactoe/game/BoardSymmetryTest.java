@@ -0,0 +1,59 @@
+package edu.najah.ai.tictactoe.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class BoardSymmetryTest {
+    
+    @Test
+    public void squareBoardHasEightTransforms() {
+        assertEquals(8, BoardSymmetry.of(new Board(5, 5, 4).getGeometry()).size());
+    }
+    
+    @Test
+    public void movesRoundTripThroughEveryTransform() {
+        Board board = new Board(5, 5, 4);
+        BoardSymmetry symmetry = board.getSymmetry();
+        BoardGeometry geometry = board.getGeometry();
+        for (int t = 0; t < symmetry.size(); t++) {
+            for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+                assertEquals(cell, symmetry.invert(t, symmetry.apply(t, cell)));
+                Move move = new Move(geometry.rowOf(cell), geometry.colOf(cell), 42);
+                Move back = symmetry.fromCanonical(symmetry.toCanonical(move, t), t);
+                assertEquals(move, back, "transform " + t);
+                assertEquals(42, back.getScore());
+            }
+        }
+    }
+    
+    @Test
+    public void everyImageOfAPositionHasTheSameCanonicalForm() {
+        Board board = new Board(5, 5, 4);
+        board.makeMove(0, 1, Player.X); // no symmetry leaves this position unchanged
+        board.makeMove(2, 2, Player.O);
+        board.makeMove(3, 0, Player.X);
+        BoardSymmetry symmetry = board.getSymmetry();
+        Board canonical = symmetry.canonicalize(board);
+        
+        for (int t = 0; t < symmetry.size(); t++) {
+            Board image = symmetry.transform(board, t);
+            assertEquals(board.getSymmetricHash(t), image.getHash(), "transform " + t);
+            assertEquals(board.getCanonicalHash(), image.getCanonicalHash(), "transform " + t);
+            assertSameMarks(canonical, symmetry.canonicalize(image));
+            
+            // A reply chosen on the canonical board lands on the same cell of the image
+            int toCanonical = symmetry.canonicalTransform(image);
+            Move reply = symmetry.toCanonical(new Move(4, 3), symmetry.canonicalTransform(board));
+            Move onImage = symmetry.fromCanonical(reply, toCanonical);
+            int expected = symmetry.apply(t, board.getGeometry().cellIndex(4, 3));
+            assertEquals(expected, board.getGeometry().cellIndex(onImage.getRow(), onImage.getCol()), "transform " + t);
+        }
+    }
+    
+    private static void assertSameMarks(Board expected, Board actual) {
+        for (int cell = 0; cell < expected.getGeometry().getCellCount(); cell++) {
+            assertEquals(expected.getCell(cell), actual.getCell(cell), "cell " + cell);
+        }
+    }
+}
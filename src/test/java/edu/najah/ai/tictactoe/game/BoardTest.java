@@ -0,0 +1,29 @@
+package edu.najah.ai.tictactoe.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class BoardTest {
+    
+    @Test
+    public void openLineCountsFollowMovesAndUndos() {
+        Board board = new Board();
+        board.makeMove(1, 1, Player.X);
+        assertEquals(4, board.getOpenLineCount(Player.X, 1)); // row, column, both diagonals
+        assertEquals(0, board.getOpenLineCount(Player.O, 1));
+        
+        board.makeMove(0, 0, Player.O);
+        assertEquals(3, board.getOpenLineCount(Player.X, 1)); // the main diagonal is blocked
+        assertEquals(2, board.getOpenLineCount(Player.O, 1));
+        assertEquals(0, board.getOpenLineCount(Player.X, 0)); // empty lines are not counted
+        assertEquals(0, board.getOpenLineCount(Player.O, 0));
+        
+        board.undoMove(0, 0);
+        board.undoMove(1, 1);
+        for (int marks = 0; marks <= board.getWinLength(); marks++) {
+            assertEquals(0, board.getOpenLineCount(Player.X, marks));
+            assertEquals(0, board.getOpenLineCount(Player.O, marks));
+        }
+    }
+}
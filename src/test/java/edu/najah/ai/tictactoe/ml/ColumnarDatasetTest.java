@@ -0,0 +1,109 @@
+package edu.najah.ai.tictactoe.ml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ColumnarDatasetTest {
+    
+    private static final int FEATURES = 3;
+    private static final int ROWS = 10;
+    private static final int GROUP_SIZE = 4; // groups of 4, 4 and 2 rows
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    public void rowsReadBackFromEveryGroup() throws IOException {
+        Path path = write(dir.resolve("rows.ttds"));
+        try (ColumnarDataset dataset = ColumnarDataset.open(path)) {
+            assertEquals(FEATURES, dataset.featureCount());
+            assertEquals(ROWS, dataset.rowCount());
+            assertEquals(GROUP_SIZE, dataset.rowGroupSize());
+            assertEquals(3, dataset.rowGroupCount());
+            
+            int row = 0;
+            for (ColumnarDataset.RowGroup group : dataset) {
+                assertEquals(Math.min(GROUP_SIZE, ROWS - row), group.rows());
+                for (int r = 0; r < group.rows(); r++, row++) {
+                    for (int f = 0; f < FEATURES; f++) {
+                        assertEquals(feature(row, f), group.feature(f, r), "row " + row + ", feature " + f);
+                    }
+                    assertEquals(label(row), group.label(r), "row " + row);
+                }
+            }
+            assertEquals(ROWS, row);
+        }
+    }
+    
+    @Test
+    public void partialLastGroupHasItsOwnColumnViews() throws IOException {
+        Path path = write(dir.resolve("last.ttds"));
+        try (ColumnarDataset dataset = ColumnarDataset.open(path)) {
+            ColumnarDataset.RowGroup last = dataset.rowGroup(2);
+            assertEquals(2, last.rows());
+            for (int f = 0; f < FEATURES; f++) {
+                ByteBuffer column = last.column(f);
+                assertEquals(2, column.remaining());
+                assertEquals(feature(8, f), column.get(0) & 0xFF);
+                assertEquals(feature(9, f), column.get(1) & 0xFF);
+            }
+            ByteBuffer labels = last.labels();
+            assertEquals(2, labels.remaining());
+            assertEquals(label(8), labels.get(0));
+            assertEquals(label(9), labels.get(1));
+        }
+    }
+    
+    @Test
+    public void loadDecodesAllRowsInOrder() throws IOException {
+        Path path = write(dir.resolve("load.ttds"));
+        try (ColumnarDataset dataset = ColumnarDataset.open(path)) {
+            TrainingSet data = dataset.load();
+            assertEquals(ROWS, data.size());
+            assertEquals(FEATURES, data.featureCount());
+            for (int row = 0; row < ROWS; row++) {
+                for (int f = 0; f < FEATURES; f++) {
+                    assertEquals(feature(row, f), data.feature(f, row));
+                }
+                assertEquals(label(row), data.label(row));
+            }
+        }
+    }
+    
+    @Test
+    public void featuresOutsideAByteAreRejected() throws IOException {
+        try (ColumnarDatasetWriter writer = new ColumnarDatasetWriter(dir.resolve("bad.ttds"), FEATURES, GROUP_SIZE)) {
+            assertThrows(IllegalArgumentException.class, () -> writer.addRow(new int[] {0, 256, 0}, 1));
+            assertThrows(IllegalArgumentException.class, () -> writer.addRow(new int[] {0, 0}, 1));
+        }
+    }
+    
+    private static Path write(Path path) throws IOException {
+        try (ColumnarDatasetWriter writer = new ColumnarDatasetWriter(path, FEATURES, GROUP_SIZE)) {
+            int[] features = new int[FEATURES];
+            for (int row = 0; row < ROWS; row++) {
+                for (int f = 0; f < FEATURES; f++) {
+                    features[f] = feature(row, f);
+                }
+                writer.addRow(features, label(row));
+            }
+        }
+        return path;
+    }
+    
+    // Covers 0 and 255, the ends of the unsigned range
+    private static int feature(int row, int f) {
+        return row == 0 ? 0 : row == ROWS - 1 ? 255 : (row * 37 + f * 11) % 256;
+    }
+    
+    private static int label(int row) {
+        return row % 3 == 0 ? -1 : 1;
+    }
+}
@@ -0,0 +1,92 @@
+package edu.najah.ai.tictactoe.ml;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ModelArtifactTest {
+    
+    private static final byte[] DATASET = "x,o,b,x,o,b,b,b,b,positive\n".getBytes(StandardCharsets.US_ASCII);
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    public void keyIsTheCrc32cOfDatasetAndSettings() throws IOException {
+        CRC32C expected = new CRC32C();
+        expected.update(DATASET);
+        LogisticRegressionTrainer.updateChecksum(expected);
+        assertEquals(expected.getValue(), ModelArtifact.keyOf(new ByteArrayInputStream(DATASET)));
+        
+        byte[] changed = DATASET.clone();
+        changed[0] = 'o';
+        assertNotEquals(ModelArtifact.keyOf(new ByteArrayInputStream(DATASET)), ModelArtifact.keyOf(new ByteArrayInputStream(changed)));
+    }
+    
+    @Test
+    public void miniBatchKeyFollowsTheTrainerSettings() throws IOException {
+        LogisticRegressionTrainer trainer = new LogisticRegressionTrainer(9);
+        long key = ModelArtifact.keyOf(new ByteArrayInputStream(DATASET), trainer);
+        assertNotEquals(ModelArtifact.keyOf(new ByteArrayInputStream(DATASET)), key);
+        
+        trainer.setParallelism(4); // does not change the result, so not the key
+        assertEquals(key, ModelArtifact.keyOf(new ByteArrayInputStream(DATASET), trainer));
+        trainer.setBatchSize(7);
+        assertNotEquals(key, ModelArtifact.keyOf(new ByteArrayInputStream(DATASET), trainer));
+    }
+    
+    @Test
+    public void savedArtifactLoadsBackUnderItsKey() throws IOException {
+        Path path = dir.resolve("models").resolve("model.bin");
+        double[] weights = {0.5, -1.25, 3.0};
+        new ModelArtifact(42L, weights, -0.75, 0.875).save(path);
+        
+        ModelArtifact loaded = ModelArtifact.load(path, 42L, weights.length);
+        assertNotNull(loaded);
+        assertEquals(42L, loaded.getKey());
+        assertArrayEquals(weights, loaded.getWeights());
+        assertEquals(-0.75, loaded.getBias());
+        assertEquals(0.875, loaded.getAccuracy());
+        assertEquals(List.of(path), filesIn(path.getParent()), "the temporary file must be moved into place");
+        
+        // Saving again replaces the file
+        new ModelArtifact(43L, new double[] {1, 2, 3}, 0, 0.5).save(path);
+        assertNull(ModelArtifact.load(path, 42L, weights.length));
+        assertArrayEquals(new double[] {1, 2, 3}, ModelArtifact.load(path, 43L, 3).getWeights());
+        assertEquals(List.of(path), filesIn(path.getParent()));
+    }
+    
+    @Test
+    public void staleMissingOrForeignFilesAreIgnored() throws IOException {
+        Path path = dir.resolve("model.bin");
+        assertNull(ModelArtifact.load(path, 42L, 3));
+        
+        new ModelArtifact(42L, new double[] {1, 2, 3}, 0, 0.5).save(path);
+        assertNull(ModelArtifact.load(path, 41L, 3), "key mismatch");
+        assertNull(ModelArtifact.load(path, 42L, 4), "feature count mismatch");
+        
+        Files.write(path, "not a model".getBytes(StandardCharsets.US_ASCII));
+        assertNull(ModelArtifact.load(path, 42L, 3));
+    }
+    
+    private static List<Path> filesIn(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+}
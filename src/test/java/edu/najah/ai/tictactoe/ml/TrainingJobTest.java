@@ -0,0 +1,107 @@
+package edu.najah.ai.tictactoe.ml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.najah.ai.tictactoe.ai.ClassicalEvaluator;
+import edu.najah.ai.tictactoe.ai.MLEvaluator;
+import edu.najah.ai.tictactoe.game.Board;
+import edu.najah.ai.tictactoe.game.Player;
+
+public class TrainingJobTest {
+    
+    @TempDir
+    Path dir;
+    
+    @AfterEach
+    public void restoreArtifactPath() {
+        System.clearProperty(ModelArtifact.PATH_PROPERTY);
+    }
+    
+    @Test
+    public void cancelledJobCompletesWithCancellation() {
+        TrainingJob job = new TrainingJob();
+        List<Double> updates = new CopyOnWriteArrayList<>();
+        job.addProgressListener(updates::add);
+        job.setProgress(0.25);
+        
+        job.cancel();
+        assertTrue(job.isCancelled());
+        job.finishCancelled();
+        job.finish(); // as run() does in its finally block
+        
+        assertTrue(job.isDone());
+        assertEquals(List.of(0.0, 0.25), updates, "a cancelled job never reports completion");
+        assertTrue(causeOf(job) instanceof CancellationException);
+    }
+    
+    @Test
+    public void finishedJobReportsFullProgressAndDropsListeners() {
+        TrainingJob job = new TrainingJob();
+        List<Double> updates = new CopyOnWriteArrayList<>();
+        job.addProgressListener(updates::add);
+        job.finish();
+        job.setProgress(0.5); // no listener is left to call
+        
+        assertEquals(List.of(0.0, 1.0), updates);
+        assertFalse(job.completion().isCompletedExceptionally());
+        
+        List<Double> late = new CopyOnWriteArrayList<>();
+        job.addProgressListener(late::add);
+        assertEquals(List.of(0.5), late, "a late listener gets the current progress once");
+    }
+    
+    @Test
+    public void evaluatorFallsBackUntilTrainingFinishes() throws Exception {
+        assumeFalse(TrainedModel.isTrained(), "another test already trained the shared model");
+        Path artifact = dir.resolve("model.bin");
+        System.setProperty(ModelArtifact.PATH_PROPERTY, artifact.toString());
+        
+        TrainingJob cancelled = TrainedModel.initializeAsync();
+        cancelled.cancel();
+        Throwable cause = null;
+        try {
+            cancelled.completion().get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            cause = e.getCause();
+        }
+        assumeFalse(cause == null, "training finished before it could be cancelled");
+        assertTrue(cause instanceof CancellationException, String.valueOf(cause));
+        
+        // No weights were published, so the classical evaluator scores the position
+        Board board = new Board();
+        board.makeMove(1, 1, Player.X);
+        board.makeMove(0, 0, Player.O);
+        MLEvaluator evaluator = new MLEvaluator();
+        assertFalse(TrainedModel.isTrained());
+        assertEquals(0, evaluator.getVersion());
+        assertEquals(new ClassicalEvaluator().evaluate(board, Player.X), evaluator.evaluate(board, Player.X));
+        assertFalse(Files.exists(artifact));
+        
+        // A cancelled job can be restarted; this one publishes weights
+        TrainingJob retry = TrainedModel.initializeAsync();
+        assertNotSame(cancelled, retry);
+        retry.completion().get(60, TimeUnit.SECONDS);
+        assertTrue(TrainedModel.isTrained());
+        assertTrue(evaluator.getVersion() > 0);
+        assertTrue(Files.exists(artifact));
+    }
+    
+    private static Throwable causeOf(TrainingJob job) {
+        return job.completion().handle((result, error) -> error.getCause() != null ? error.getCause() : error).join();
+    }
+}
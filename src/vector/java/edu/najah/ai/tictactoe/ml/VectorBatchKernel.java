@@ -0,0 +1,40 @@
+package edu.najah.ai.tictactoe.ml;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernel on the incubating Vector API. Only compiled by the {@code vector} profile
+ * and only used when the JVM runs with {@code --add-modules jdk.incubator.vector};
+ * {@link TrainedModel} falls back to {@link ScalarBatchKernel} otherwise.
+ */
+final class VectorBatchKernel implements BatchKernel {
+    
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    
+    @Override
+    public void dot(double[][] columns, int size, double[] weights, double bias, double[] out) {
+        int bound = SPECIES.loopBound(size);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector sum = DoubleVector.broadcast(SPECIES, bias);
+            for (int f = 0; f < columns.length; f++) {
+                // mul then add, not fma, to round exactly like the scalar model
+                sum = sum.add(DoubleVector.fromArray(SPECIES, columns[f], i).mul(weights[f]));
+            }
+            sum.intoArray(out, i);
+        }
+        for (; i < size; i++) {
+            double sum = bias;
+            for (int f = 0; f < columns.length; f++) {
+                sum += weights[f] * columns[f][i];
+            }
+            out[i] = sum;
+        }
+    }
+    
+    @Override
+    public String describe() {
+        return "vector (" + SPECIES.length() + " lanes)";
+    }
+}